@@ -0,0 +1,153 @@
+package com.TecUnify.backend_user.carga;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Un alumno simulado: espera la señal de salida y lanza peticiones según la
+ * mezcla de Operacion hasta que termina la prueba, sin pausas entre ellas.
+ */
+final class ClienteCarga implements Runnable {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    // Proporción de intentos de reserva que van a los espacios/horas más pedidos
+    private static final double PROPORCION_DISPUTADA = 0.7;
+
+    private final HttpClient http;
+    private final String base;
+    private final ConfiguracionCarga cfg;
+    private final List<Long> espacios;
+    private final LocalDate fechaDisputada;
+    private final CountDownLatch salida;
+    private final long medirDesde;
+    private final long terminarEn;
+    private final Random rnd;
+    private final Map<Operacion, Muestras> muestras = new EnumMap<>(Operacion.class);
+
+    ClienteCarga(HttpClient http, String base, ConfiguracionCarga cfg, List<Long> espacios,
+                 LocalDate fechaDisputada, CountDownLatch salida, long medirDesde, long terminarEn, long semilla) {
+        this.http = http;
+        this.base = base;
+        this.cfg = cfg;
+        this.espacios = espacios;
+        this.fechaDisputada = fechaDisputada;
+        this.salida = salida;
+        this.medirDesde = medirDesde;
+        this.terminarEn = terminarEn;
+        this.rnd = new Random(semilla);
+        for (Operacion op : Operacion.values()) {
+            muestras.put(op, new Muestras());
+        }
+    }
+
+    Map<Operacion, Muestras> muestras() {
+        return muestras;
+    }
+
+    @Override
+    public void run() {
+        try {
+            salida.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        while (System.nanoTime() < terminarEn) {
+            Operacion op = Operacion.elegir(rnd.nextInt(Operacion.PESO_TOTAL));
+            HttpRequest peticion = peticion(op);
+            long t0 = System.nanoTime();
+            int status;
+            try {
+                status = http.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long t1 = System.nanoTime();
+            if (t0 >= medirDesde) {
+                muestras.get(op).registrar(t1 - t0, status);
+            }
+        }
+    }
+
+    private HttpRequest peticion(Operacion op) {
+        return switch (op) {
+            case LOGIN_GOOGLE -> login();
+            case LISTAR_ESPACIOS -> get("/api/espacios");
+            case VER_ESPACIO -> get("/api/espacios/" + espacioAlAzar());
+            case LISTAR_TIPOS -> get("/api/tipos-espacios");
+            case LISTAR_MOTIVOS -> get("/api/motivos-reserva");
+            case MIS_RESERVAS -> get("/api/reservas/mi?email=" + codificar(alumnoAlAzar()));
+            case CREAR_RESERVA -> crearReserva();
+        };
+    }
+
+    // Un 10% de los logins son alumnos que entran por primera vez (se crean)
+    private HttpRequest login() {
+        int n = rnd.nextInt(cfg.estudiantes() + cfg.estudiantes() / 10 + 1);
+        String json = String.format(
+                "{\"googleId\":\"g-%d\",\"email\":\"%s\",\"firstName\":\"Alumno\",\"lastName\":\"%d\"}",
+                n, SembradorCarga.emailAlumno(n), n);
+        return post("/api/auth/google", json);
+    }
+
+    private HttpRequest crearReserva() {
+        long espacioId;
+        LocalDate fecha;
+        int hora;
+        if (rnd.nextDouble() < PROPORCION_DISPUTADA) {
+            // Todos quieren los mismos laboratorios a primera hora del día siguiente
+            espacioId = espacios.get(rnd.nextInt(cfg.espaciosDisputados()));
+            fecha = fechaDisputada;
+            hora = 8 + rnd.nextInt(4);
+        } else {
+            espacioId = espacioAlAzar();
+            fecha = fechaDisputada.plusDays(1 + rnd.nextInt(SembradorCarga.DIAS_RESERVABLES));
+            hora = SembradorCarga.HORA_APERTURA
+                    + rnd.nextInt(SembradorCarga.HORA_CIERRE - SembradorCarga.HORA_APERTURA);
+        }
+        String json = String.format(
+                "{\"espacioId\":%d,\"fechaReserva\":\"%s\",\"horaInicio\":\"%02d:00:00\",\"horaFin\":\"%02d:00:00\",\"motivo\":\"Estudio Grupal\"}",
+                espacioId, fecha, hora, hora + 1);
+        return post("/api/reservas?email=" + codificar(alumnoAlAzar()), json);
+    }
+
+    private long espacioAlAzar() {
+        return espacios.get(rnd.nextInt(espacios.size()));
+    }
+
+    private String alumnoAlAzar() {
+        return SembradorCarga.emailAlumno(rnd.nextInt(cfg.estudiantes()));
+    }
+
+    private HttpRequest get(String ruta) {
+        return HttpRequest.newBuilder(URI.create(base + ruta)).timeout(TIMEOUT).GET().build();
+    }
+
+    private HttpRequest post(String ruta, String json) {
+        return HttpRequest.newBuilder(URI.create(base + ruta))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static String codificar(String valor) {
+        return URLEncoder.encode(valor, StandardCharsets.UTF_8);
+    }
+}
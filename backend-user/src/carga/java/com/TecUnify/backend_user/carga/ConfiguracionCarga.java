@@ -0,0 +1,32 @@
+package com.TecUnify.backend_user.carga;
+
+/**
+ * Parámetros de la prueba de carga, leídos de propiedades del sistema
+ * (-Dcarga.usuarios=500 -Dcarga.segundos=120 ...).
+ */
+record ConfiguracionCarga(int usuarios,
+                          int segundos,
+                          int calentamiento,
+                          int estudiantes,
+                          int espacios,
+                          int reservasPorEspacio,
+                          int espaciosDisputados,
+                          long semilla) {
+
+    static ConfiguracionCarga desdePropiedades() {
+        ConfiguracionCarga cfg = new ConfiguracionCarga(
+                Integer.getInteger("carga.usuarios", 200),
+                Integer.getInteger("carga.segundos", 60),
+                Integer.getInteger("carga.calentamiento", 10),
+                Integer.getInteger("carga.estudiantes", 2000),
+                Integer.getInteger("carga.espacios", 40),
+                Integer.getInteger("carga.reservas-por-espacio", 50),
+                Integer.getInteger("carga.espacios-disputados", 4),
+                Long.getLong("carga.semilla", 42L));
+        if (cfg.usuarios < 1 || cfg.segundos < 1 || cfg.estudiantes < 1
+                || cfg.espaciosDisputados < 1 || cfg.espaciosDisputados > cfg.espacios) {
+            throw new IllegalArgumentException("Configuración de carga inválida: " + cfg);
+        }
+        return cfg;
+    }
+}
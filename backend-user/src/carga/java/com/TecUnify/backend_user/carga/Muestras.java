@@ -0,0 +1,55 @@
+package com.TecUnify.backend_user.carga;
+
+import java.util.Arrays;
+
+/**
+ * Latencias (ns) y códigos de respuesta de una operación. Cada hilo tiene
+ * las suyas y se combinan al final, así el registro no necesita sincronizar.
+ */
+final class Muestras {
+    private long[] latencias = new long[1024];
+    private int cantidad;
+    private boolean ordenado;
+
+    int exitos;
+    int conflictos; // 409
+    int errores;    // otros 4xx/5xx y fallos de conexión
+
+    void registrar(long nanos, int status) {
+        if (cantidad == latencias.length) {
+            latencias = Arrays.copyOf(latencias, cantidad * 2);
+        }
+        latencias[cantidad++] = nanos;
+        ordenado = false;
+        if (status >= 200 && status < 300) exitos++;
+        else if (status == 409) conflictos++;
+        else errores++;
+    }
+
+    void combinar(Muestras otra) {
+        if (cantidad + otra.cantidad > latencias.length) {
+            latencias = Arrays.copyOf(latencias, Math.max(latencias.length * 2, cantidad + otra.cantidad));
+        }
+        System.arraycopy(otra.latencias, 0, latencias, cantidad, otra.cantidad);
+        cantidad += otra.cantidad;
+        ordenado = false;
+        exitos += otra.exitos;
+        conflictos += otra.conflictos;
+        errores += otra.errores;
+    }
+
+    int cantidad() {
+        return cantidad;
+    }
+
+    // Percentil por rango más cercano, en milisegundos
+    double percentilMs(double p) {
+        if (cantidad == 0) return 0;
+        if (!ordenado) {
+            Arrays.sort(latencias, 0, cantidad);
+            ordenado = true;
+        }
+        int rango = (int) Math.ceil(p / 100.0 * cantidad);
+        return latencias[Math.max(0, Math.min(cantidad, rango) - 1)] / 1_000_000.0;
+    }
+}
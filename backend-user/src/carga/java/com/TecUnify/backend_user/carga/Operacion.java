@@ -0,0 +1,40 @@
+package com.TecUnify.backend_user.carga;
+
+/**
+ * Mezcla de tráfico de la semana de matrícula. El peso es la proporción
+ * relativa de peticiones de cada tipo.
+ */
+enum Operacion {
+    LOGIN_GOOGLE("POST /api/auth/google", 10),
+    LISTAR_ESPACIOS("GET  /api/espacios", 20),
+    VER_ESPACIO("GET  /api/espacios/{id}", 10),
+    LISTAR_TIPOS("GET  /api/tipos-espacios", 5),
+    LISTAR_MOTIVOS("GET  /api/motivos-reserva", 5),
+    MIS_RESERVAS("GET  /api/reservas/mi", 25),
+    CREAR_RESERVA("POST /api/reservas", 25);
+
+    static final int PESO_TOTAL;
+
+    static {
+        int total = 0;
+        for (Operacion op : values()) total += op.peso;
+        PESO_TOTAL = total;
+    }
+
+    final String ruta;
+    final int peso;
+
+    Operacion(String ruta, int peso) {
+        this.ruta = ruta;
+        this.peso = peso;
+    }
+
+    // r en [0, PESO_TOTAL)
+    static Operacion elegir(int r) {
+        for (Operacion op : values()) {
+            if (r < op.peso) return op;
+            r -= op.peso;
+        }
+        throw new IllegalArgumentException("Valor fuera de rango: " + r);
+    }
+}
@@ -0,0 +1,136 @@
+package com.TecUnify.backend_user.carga;
+
+import com.TecUnify.backend_user.BackendUserApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Prueba de carga de la semana de matrícula: levanta BackendUserApplication
+ * sobre H2 en memoria, siembra datos y lanza a todos los alumnos simulados
+ * a la vez. Reporta p50/p99/p999 y throughput por endpoint.
+ *
+ * mvn -Pcarga test-compile exec:exec [-Dcarga.args="-Xmx1g -Dcarga.usuarios=500 -Dcarga.segundos=120"]
+ */
+public final class PruebaCarga {
+
+    // Argumentos de línea de comandos: tienen prioridad sobre application.yml
+    private static final String[] PROPIEDADES = {
+            "--spring.datasource.url=",   // sin PostgreSQL: DataSourceFallbackConfig usa H2
+            "--spring.jpa.hibernate.ddl-auto=create-drop",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "--spring.flyway.enabled=false",
+            "--server.port=0",
+            "--logging.level.com.TecUnify=INFO"
+    };
+
+    private PruebaCarga() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfiguracionCarga cfg = ConfiguracionCarga.desdePropiedades();
+
+        String[] argumentos = Stream.concat(Stream.of(PROPIEDADES), Stream.of(args)).toArray(String[]::new);
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(BackendUserApplication.class)
+                .initializers(c -> c.getBeanFactory()
+                        .registerSingleton("excluirConfiguracionesDePrueba", new ExcluirConfiguracionesDePrueba()))
+                .run(argumentos)) {
+
+            int puerto = ((WebServerApplicationContext) ctx).getWebServer().getPort();
+            LocalDate fechaDisputada = LocalDate.now().plusDays(1);
+            List<Long> espacios = new SembradorCarga(ctx, cfg).sembrar(fechaDisputada);
+
+            Map<Operacion, Muestras> resultado = ejecutar(cfg, "http://localhost:" + puerto, espacios, fechaDisputada);
+            imprimir(cfg, resultado);
+        }
+    }
+
+    private static Map<Operacion, Muestras> ejecutar(ConfiguracionCarga cfg, String base, List<Long> espacios,
+                                                      LocalDate fechaDisputada) throws InterruptedException {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        CountDownLatch salida = new CountDownLatch(1);
+        long inicio = System.nanoTime();
+        long medirDesde = inicio + TimeUnit.SECONDS.toNanos(cfg.calentamiento());
+        long terminarEn = medirDesde + TimeUnit.SECONDS.toNanos(cfg.segundos());
+
+        List<ClienteCarga> clientes = new ArrayList<>(cfg.usuarios());
+        List<Thread> hilos = new ArrayList<>(cfg.usuarios());
+        for (int i = 0; i < cfg.usuarios(); i++) {
+            ClienteCarga cliente = new ClienteCarga(http, base, cfg, espacios, fechaDisputada,
+                    salida, medirDesde, terminarEn, cfg.semilla() + i);
+            Thread hilo = new Thread(cliente, "carga-" + i);
+            clientes.add(cliente);
+            hilos.add(hilo);
+            hilo.start();
+        }
+
+        System.out.printf("%d alumnos simultáneos: %d s de calentamiento + %d s medidos...%n",
+                cfg.usuarios(), cfg.calentamiento(), cfg.segundos());
+        salida.countDown();
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+
+        Map<Operacion, Muestras> total = new EnumMap<>(Operacion.class);
+        for (Operacion op : Operacion.values()) {
+            Muestras m = new Muestras();
+            for (ClienteCarga c : clientes) {
+                m.combinar(c.muestras().get(op));
+            }
+            total.put(op, m);
+        }
+        return total;
+    }
+
+    private static void imprimir(ConfiguracionCarga cfg, Map<Operacion, Muestras> resultado) {
+        double segundos = cfg.segundos();
+        System.out.println();
+        System.out.printf("%-28s %9s %9s %9s %9s %9s %8s %8s %8s%n",
+                "Endpoint", "Total", "req/s", "p50 ms", "p99 ms", "p999 ms", "2xx", "409", "errores");
+        Muestras global = new Muestras();
+        for (Map.Entry<Operacion, Muestras> e : resultado.entrySet()) {
+            imprimirFila(e.getKey().ruta, e.getValue(), segundos);
+            global.combinar(e.getValue());
+        }
+        imprimirFila("TOTAL", global, segundos);
+    }
+
+    private static void imprimirFila(String nombre, Muestras m, double segundos) {
+        System.out.printf("%-28s %9d %9.1f %9.2f %9.2f %9.2f %8d %8d %8d%n",
+                nombre, m.cantidad(), m.cantidad() / segundos,
+                m.percentilMs(50), m.percentilMs(99), m.percentilMs(99.9),
+                m.exitos, m.conflictos, m.errores);
+    }
+
+    /**
+     * El classpath de test incluye TestcontainersConfiguration; sin este
+     * filtro el escaneo de componentes la registraría e intentaría levantar
+     * un contenedor de PostgreSQL.
+     */
+    static final class ExcluirConfiguracionesDePrueba extends TypeExcludeFilter {
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+            return metadataReader.getAnnotationMetadata().hasAnnotation(TestConfiguration.class.getName());
+        }
+    }
+}
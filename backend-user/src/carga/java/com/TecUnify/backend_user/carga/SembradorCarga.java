@@ -0,0 +1,133 @@
+package com.TecUnify.backend_user.carga;
+
+import com.TecUnify.backend_user.model.*;
+import com.TecUnify.backend_user.repository.*;
+import com.TecUnify.backend_user.service.DisponibilidadIndex;
+import org.springframework.context.ApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Datos de la semana de matrícula sobre los que crea DataInitializer:
+ * alumnos, espacios con horario y reservas ya tomadas en las próximas
+ * dos semanas.
+ */
+final class SembradorCarga {
+
+    static final int DIAS_RESERVABLES = 14;
+    static final int HORA_APERTURA = 7;
+    static final int HORA_CIERRE = 22;
+
+    private final ApplicationContext ctx;
+    private final ConfiguracionCarga cfg;
+    private final Random rnd;
+
+    SembradorCarga(ApplicationContext ctx, ConfiguracionCarga cfg) {
+        this.ctx = ctx;
+        this.cfg = cfg;
+        this.rnd = new Random(cfg.semilla());
+    }
+
+    static String emailAlumno(int n) {
+        return "alumno" + n + "@tecsup.edu.pe";
+    }
+
+    // Devuelve los ids de los espacios; los primeros espaciosDisputados son los más pedidos
+    List<Long> sembrar(LocalDate fechaDisputada) {
+        List<User> alumnos = sembrarAlumnos();
+        List<Espacio> espacios = sembrarEspacios();
+        int reservas = sembrarReservas(alumnos, espacios, fechaDisputada);
+
+        // Las reservas se guardaron con el repositorio: recargar el índice en memoria
+        ctx.getBean(DisponibilidadIndex.class).cargar();
+
+        System.out.printf("Semilla: %d alumnos, %d espacios, %d reservas%n",
+                alumnos.size(), espacios.size(), reservas);
+        return espacios.stream().map(Espacio::getId).toList();
+    }
+
+    private List<User> sembrarAlumnos() {
+        UserRepository repo = ctx.getBean(UserRepository.class);
+        List<User> alumnos = new ArrayList<>(cfg.estudiantes());
+        for (int i = 0; i < cfg.estudiantes(); i++) {
+            alumnos.add(User.builder()
+                    .email(emailAlumno(i))
+                    .firstName("Alumno")
+                    .lastName(String.valueOf(i))
+                    .role(Role.USER)
+                    .active(true)
+                    .build());
+        }
+        return repo.saveAll(alumnos);
+    }
+
+    private List<Espacio> sembrarEspacios() {
+        EspacioRepository espacioRepo = ctx.getBean(EspacioRepository.class);
+        HorarioDisponibilidadRepository horarioRepo = ctx.getBean(HorarioDisponibilidadRepository.class);
+        List<TipoEspacio> tipos = ctx.getBean(TipoEspacioRepository.class).findAll();
+
+        List<Espacio> espacios = new ArrayList<>();
+        for (int i = 0; i < cfg.espacios(); i++) {
+            espacios.add(Espacio.builder()
+                    .nombre("Laboratorio " + (i + 1))
+                    .descripcion("Espacio generado para la prueba de carga")
+                    .ubicacion("Campus Norte - Pabellón " + (char) ('A' + i % 6))
+                    .capacidad(20 + i % 20)
+                    .tipoEspacio(tipos.get(i % tipos.size()))
+                    .precioPorHora(new BigDecimal("30.00"))
+                    .equipamiento("PCs, Proyector, WiFi")
+                    .activo(true)
+                    .build());
+        }
+        espacios = espacioRepo.saveAll(espacios);
+
+        // Lunes a sábado de 7:00 a 22:00
+        List<HorarioDisponibilidad> horarios = new ArrayList<>();
+        for (Espacio e : espacios) {
+            for (int dia = 1; dia <= 6; dia++) {
+                horarios.add(HorarioDisponibilidad.builder()
+                        .espacio(e)
+                        .diaSemana(dia)
+                        .horaInicio(LocalTime.of(HORA_APERTURA, 0))
+                        .horaFin(LocalTime.of(HORA_CIERRE, 0))
+                        .activo(true)
+                        .build());
+            }
+        }
+        horarioRepo.saveAll(horarios);
+        return espacios;
+    }
+
+    // Reservas de 1 h sin solaparse; el día disputado queda libre para la tormenta
+    private int sembrarReservas(List<User> alumnos, List<Espacio> espacios, LocalDate fechaDisputada) {
+        ReservaRepository repo = ctx.getBean(ReservaRepository.class);
+        int horasPorDia = HORA_CIERRE - HORA_APERTURA;
+        int maximo = Math.min(cfg.reservasPorEspacio(), DIAS_RESERVABLES * horasPorDia);
+        int total = 0;
+        for (Espacio e : espacios) {
+            Set<Integer> ocupadas = new HashSet<>();
+            List<Reserva> reservas = new ArrayList<>(maximo);
+            while (ocupadas.size() < maximo) {
+                int franja = rnd.nextInt(DIAS_RESERVABLES * horasPorDia);
+                if (!ocupadas.add(franja)) continue;
+                LocalTime inicio = LocalTime.of(HORA_APERTURA + franja % horasPorDia, 0);
+                reservas.add(Reserva.builder()
+                        .usuario(alumnos.get(rnd.nextInt(alumnos.size())))
+                        .espacio(e)
+                        .fechaReserva(fechaDisputada.plusDays(1 + franja / horasPorDia))
+                        .horaInicio(inicio)
+                        .horaFin(inicio.plusHours(1))
+                        .motivo("Clase Académica")
+                        .estado(rnd.nextBoolean() ? EstadoReserva.CONFIRMADA : EstadoReserva.PENDIENTE)
+                        .precioTotal(e.getPrecioPorHora())
+                        .build());
+            }
+            repo.saveAll(reservas);
+            total += reservas.size();
+        }
+        return total;
+    }
+}
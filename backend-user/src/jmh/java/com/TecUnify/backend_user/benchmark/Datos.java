@@ -0,0 +1,85 @@
+package com.TecUnify.backend_user.benchmark;
+
+import com.TecUnify.backend_user.dto.EspacioDTO;
+import com.TecUnify.backend_user.dto.ReservaDTO;
+import com.TecUnify.backend_user.model.*;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos de prueba compartidos por los benchmarks.
+ */
+final class Datos {
+
+    private Datos() {
+    }
+
+    // Próximo martes: día hábil con horario en todos los espacios de ejemplo
+    static LocalDate proximoMartes() {
+        return LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.TUESDAY));
+    }
+
+    static Espacio espacio(long id) {
+        return Espacio.builder()
+                .id(id)
+                .nombre("Laboratorio de Computación " + id)
+                .descripcion("Laboratorio equipado con 30 computadoras de última generación")
+                .ubicacion("Campus Norte - Edificio A - Piso 2")
+                .capacidad(30)
+                .precioPorHora(new BigDecimal("50.00"))
+                .equipamiento("30 PCs, Proyector 4K, WiFi, Aire acondicionado")
+                .activo(true)
+                .build();
+    }
+
+    static Reserva reserva(long id, Espacio espacio, LocalDate fecha, LocalTime inicio, LocalTime fin) {
+        return Reserva.builder()
+                .id(id)
+                .usuario(User.builder().id(id % 100).email("alumno" + id + "@tecsup.edu.pe").role(Role.USER).build())
+                .espacio(espacio)
+                .fechaReserva(fecha)
+                .horaInicio(inicio)
+                .horaFin(fin)
+                .motivo("Clase Académica")
+                .estado(EstadoReserva.CONFIRMADA)
+                .precioTotal(new BigDecimal("100.00"))
+                .build();
+    }
+
+    // Filas [id, espacioId, fecha, horaInicio, horaFin] contiguas de 15 min desde las 06:00
+    static List<Object[]> franjas(long espacioId, LocalDate fecha, int cantidad) {
+        List<Object[]> filas = new ArrayList<>();
+        LocalTime t = LocalTime.of(6, 0);
+        for (int i = 0; i < cantidad; i++) {
+            filas.add(new Object[]{espacioId * 1000 + i, espacioId, fecha, t, t.plusMinutes(15)});
+            t = t.plusMinutes(15);
+        }
+        return filas;
+    }
+
+    static List<ReservaDTO> reservasDTO(int cantidad) {
+        LocalDate fecha = proximoMartes();
+        List<ReservaDTO> lista = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            lista.add(new ReservaDTO((long) i, (long) i % 100, "alumno" + i + "@tecsup.edu.pe", "Juan Pérez",
+                    (long) i % 20, "Laboratorio de Computación A", fecha.plusDays(i % 30),
+                    LocalTime.of(9, 0), LocalTime.of(11, 0), "Clase Académica",
+                    EstadoReserva.PENDIENTE, null, new BigDecimal("100.00"), 0L));
+        }
+        return lista;
+    }
+
+    static List<EspacioDTO> espaciosDTO(int cantidad) {
+        List<EspacioDTO> lista = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            lista.add(EspacioDTO.fromEntity(espacio(i)));
+        }
+        return lista;
+    }
+}
@@ -0,0 +1,63 @@
+package com.TecUnify.backend_user.benchmark;
+
+import com.TecUnify.backend_user.repository.ReservaRepository;
+import com.TecUnify.backend_user.service.DisponibilidadIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verificación de solapamiento usada al crear una reserva
+ * (DisponibilidadIndex.estaDisponible / conflictos).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DisponibilidadBenchmark {
+
+    // Reservas de 15 min por espacio y día (64 = día completo de 06:00 a 22:00)
+    @Param({"4", "16", "64"})
+    public int reservasPorDia;
+
+    private DisponibilidadIndex index;
+    private LocalDate fecha;
+
+    @Setup
+    public void setup() {
+        fecha = Datos.proximoMartes();
+        List<Object[]> filas = new ArrayList<>();
+        for (long espacioId = 1; espacioId <= 200; espacioId++) {
+            filas.addAll(Datos.franjas(espacioId, fecha, reservasPorDia));
+        }
+        ReservaRepository repo = mock(ReservaRepository.class);
+        when(repo.findFranjasDesde(any(), any())).thenReturn(filas);
+        index = new DisponibilidadIndex(repo);
+        index.cargar();
+    }
+
+    @Benchmark
+    public boolean horarioOcupado() {
+        return index.estaDisponible(7L, fecha, LocalTime.of(6, 30), LocalTime.of(7, 30));
+    }
+
+    @Benchmark
+    public boolean horarioLibre() {
+        return index.estaDisponible(7L, fecha, LocalTime.of(22, 0), LocalTime.of(23, 0));
+    }
+
+    @Benchmark
+    public List<Long> conflictos() {
+        return index.conflictos(7L, fecha, LocalTime.of(6, 0), LocalTime.of(8, 0));
+    }
+}
@@ -0,0 +1,88 @@
+package com.TecUnify.backend_user.benchmark;
+
+import com.TecUnify.backend_user.dto.HorariosDisponiblesDTO;
+import com.TecUnify.backend_user.model.Espacio;
+import com.TecUnify.backend_user.model.HorarioDisponibilidad;
+import com.TecUnify.backend_user.repository.HorarioDisponibilidadRepository;
+import com.TecUnify.backend_user.repository.ReservaRepository;
+import com.TecUnify.backend_user.service.DisponibilidadIndex;
+import com.TecUnify.backend_user.service.HorarioSlotEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Coincidencia de ventanas de HorarioDisponibilidad: recorrido lineal (el
+ * predicado de findAvailableHours) frente al motor de bitmaps.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HorarioBenchmark {
+
+    private List<HorarioDisponibilidad> horarios;
+    private HorarioSlotEngine engine;
+    private LocalDate fecha;
+    private int diaSemana;
+
+    @Setup
+    public void setup() {
+        fecha = Datos.proximoMartes();
+        diaSemana = fecha.getDayOfWeek().getValue() % 7;
+
+        Espacio espacio = Datos.espacio(1);
+        horarios = new ArrayList<>();
+        for (int dia = 1; dia <= 5; dia++) {
+            horarios.add(HorarioDisponibilidad.builder().espacio(espacio).diaSemana(dia)
+                    .horaInicio(LocalTime.of(8, 0)).horaFin(LocalTime.of(13, 0)).activo(true).build());
+            horarios.add(HorarioDisponibilidad.builder().espacio(espacio).diaSemana(dia)
+                    .horaInicio(LocalTime.of(14, 0)).horaFin(LocalTime.of(22, 0)).activo(true).build());
+        }
+        HorarioDisponibilidadRepository horarioRepo = mock(HorarioDisponibilidadRepository.class);
+        when(horarioRepo.findByEspacioIdAndActivoTrue(anyLong())).thenReturn(horarios);
+
+        ReservaRepository reservaRepo = mock(ReservaRepository.class);
+        List<Object[]> filas = new ArrayList<>();
+        filas.add(new Object[]{1L, 1L, fecha, LocalTime.of(9, 0), LocalTime.of(11, 0)});
+        filas.add(new Object[]{2L, 1L, fecha, LocalTime.of(16, 30), LocalTime.of(18, 0)});
+        when(reservaRepo.findFranjasDesde(any(), any())).thenReturn(filas);
+        DisponibilidadIndex index = new DisponibilidadIndex(reservaRepo);
+        index.cargar();
+
+        engine = new HorarioSlotEngine(horarioRepo, index, 15, 3600);
+    }
+
+    @Benchmark
+    public boolean ventanaLineal() {
+        LocalTime inicio = LocalTime.of(19, 0);
+        LocalTime fin = LocalTime.of(21, 0);
+        for (HorarioDisponibilidad h : horarios) {
+            if (h.getDiaSemana() == diaSemana && !h.getHoraInicio().isAfter(inicio) && !h.getHoraFin().isBefore(fin)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean ventanaBitmap() {
+        return engine.estaLibre(engine.libres(1L, fecha), LocalTime.of(19, 0), LocalTime.of(21, 0));
+    }
+
+    @Benchmark
+    public HorariosDisponiblesDTO horariosDisponibles() {
+        return engine.horariosDisponibles(1L, fecha);
+    }
+}
@@ -0,0 +1,41 @@
+package com.TecUnify.backend_user.benchmark;
+
+import com.TecUnify.backend_user.dto.EspacioDTO;
+import com.TecUnify.backend_user.dto.ReservaDTO;
+import com.TecUnify.backend_user.model.Espacio;
+import com.TecUnify.backend_user.model.Reserva;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de mapear entidades a DTO (ReservaDTO/EspacioDTO.fromEntity).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapeoDTOBenchmark {
+
+    private Espacio espacio;
+    private Reserva reserva;
+
+    @Setup
+    public void setup() {
+        espacio = Datos.espacio(1);
+        reserva = Datos.reserva(1, espacio, Datos.proximoMartes(), LocalTime.of(9, 0), LocalTime.of(11, 0));
+    }
+
+    @Benchmark
+    public ReservaDTO reservaFromEntity() {
+        return ReservaDTO.fromEntity(reserva);
+    }
+
+    @Benchmark
+    public EspacioDTO espacioFromEntity() {
+        return EspacioDTO.fromEntity(espacio);
+    }
+}
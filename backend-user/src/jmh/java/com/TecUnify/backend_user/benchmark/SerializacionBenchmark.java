@@ -0,0 +1,53 @@
+package com.TecUnify.backend_user.benchmark;
+
+import com.TecUnify.backend_user.dto.EspacioDTO;
+import com.TecUnify.backend_user.dto.ReservaDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización JSON de los listados (/api/reservas/mi, /api/espacios),
+ * con la misma configuración de fechas que application.yml.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializacionBenchmark {
+
+    @Param({"20", "500"})
+    public int tamano;
+
+    private ObjectMapper mapper;
+    private List<ReservaDTO> reservas;
+    private List<EspacioDTO> espacios;
+
+    @Setup
+    public void setup() {
+        mapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        reservas = Datos.reservasDTO(tamano);
+        espacios = Datos.espaciosDTO(tamano);
+    }
+
+    @Benchmark
+    public byte[] listaReservas() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(reservas);
+    }
+
+    @Benchmark
+    public byte[] listaEspacios() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(espacios);
+    }
+}
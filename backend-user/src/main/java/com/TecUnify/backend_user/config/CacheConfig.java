@@ -0,0 +1,22 @@
+package com.TecUnify.backend_user.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caché en proceso (Caffeine) del catálogo. Tamaño y TTL se configuran en
+ * spring.cache.caffeine.spec; las escrituras de EspacioService invalidan las
+ * entradas afectadas. Tipos y motivos solo se editan desde backend-admin,
+ * por eso dependen del TTL.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String ESPACIOS = "espacios";
+    public static final String ESPACIO = "espacio";
+    public static final String TIPOS_ESPACIO = "tiposEspacio";
+    public static final String TIPO_ESPACIO = "tipoEspacio";
+    public static final String MOTIVOS_RESERVA = "motivosReserva";
+    public static final String MOTIVO_RESERVA = "motivoReserva";
+}
@@ -0,0 +1,40 @@
+package com.TecUnify.backend_user.config;
+
+import com.TecUnify.backend_user.dto.ConsultaLentaDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /actuator/consultaslentas: últimas sentencias SQL sobre el umbral.
+ * DELETE vacía el buffer. Como todo /actuator salvo health e info, pide el
+ * usuario de monitoreo (SecurityConfig); los valores de los parámetros solo
+ * aparecen con app.sql.consultas-lentas.mostrar-parametros.
+ */
+@Component
+@Endpoint(id = "consultaslentas")
+@RequiredArgsConstructor
+public class ConsultasLentasEndpoint {
+
+    private final RegistroConsultasLentas registro;
+
+    @ReadOperation
+    public Map<String, Object> consultas() {
+        List<ConsultaLentaDTO> recientes = registro.recientes();
+        return Map.of(
+                "umbralMs", registro.getUmbralMs(),
+                "total", registro.getTotal(),
+                "mostrarParametros", registro.isMostrarParametros(),
+                "consultas", recientes);
+    }
+
+    @DeleteOperation
+    public void limpiar() {
+        registro.limpiar();
+    }
+}
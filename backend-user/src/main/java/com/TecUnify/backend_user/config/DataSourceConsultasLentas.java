@@ -0,0 +1,142 @@
+package com.TecUnify.backend_user.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mide cada sentencia ejecutada a través de las conexiones del pool y
+ * guarda en RegistroConsultasLentas las que superan el umbral, con sus
+ * parámetros. Reemplaza al log completo de SQL (show-sql / BasicBinder).
+ */
+public class DataSourceConsultasLentas extends DelegatingDataSource implements Closeable {
+
+    private final RegistroConsultasLentas registro;
+
+    public DataSourceConsultasLentas(DataSource destino, RegistroConsultasLentas registro) {
+        super(destino);
+        this.registro = registro;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return envolver(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return envolver(super.getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (getTargetDataSource() instanceof Closeable c) {
+            c.close();
+        }
+    }
+
+    private Connection envolver(Connection conexion) {
+        return proxy(Connection.class, conexion, (proxy, metodo, args) -> {
+            Object resultado = invocar(conexion, metodo, args);
+            return switch (metodo.getName()) {
+                case "createStatement" -> proxy(Statement.class, resultado, new Medicion((Statement) resultado, null));
+                case "prepareStatement" -> proxy(PreparedStatement.class, resultado,
+                        new Medicion((Statement) resultado, (String) args[0]));
+                case "prepareCall" -> proxy(CallableStatement.class, resultado,
+                        new Medicion((Statement) resultado, (String) args[0]));
+                default -> resultado;
+            };
+        });
+    }
+
+    /**
+     * Intercepta los setXxx para recordar los parámetros y los execute* para
+     * medir. Un Statement lo usa un solo hilo a la vez (JDBC), así que el
+     * estado no necesita sincronización.
+     */
+    private final class Medicion implements InvocationHandler {
+        private final Statement statement;
+        private final String sqlPreparado;
+        private final List<Object> parametros = new ArrayList<>();
+        private boolean filaCerrada;
+        private int lote;
+
+        Medicion(Statement statement, String sqlPreparado) {
+            this.statement = statement;
+            this.sqlPreparado = sqlPreparado;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            String nombre = metodo.getName();
+            if (nombre.startsWith("execute")) {
+                long inicio = System.nanoTime();
+                try {
+                    return invocar(statement, metodo, args);
+                } finally {
+                    long nanos = System.nanoTime() - inicio;
+                    if (registro.esLenta(nanos)) {
+                        registro.registrar(sql(nombre, args), nanos, List.copyOf(parametros));
+                    }
+                    if (nombre.equals("executeBatch") || nombre.equals("executeLargeBatch")) lote = 0;
+                }
+            }
+            if (nombre.startsWith("set") && args != null && args.length >= 2
+                    && (args[0] instanceof Integer || args[0] instanceof String)) {
+                // En un lote solo se conservan los parámetros de la última fila
+                if (filaCerrada) {
+                    parametros.clear();
+                    filaCerrada = false;
+                }
+                // Por defecto sin valores (emails, datos personales): solo posición y tipo
+                parametros.add(registro.isMostrarParametros() ? args[0] + "=" + args[1]
+                        : args[0] + "=<" + (args[1] == null ? "null" : args[1].getClass().getSimpleName()) + ">");
+            } else if (nombre.equals("clearParameters")) {
+                parametros.clear();
+            } else if (nombre.equals("addBatch")) {
+                lote++;
+                filaCerrada = args == null;
+            }
+            return invocar(statement, metodo, args);
+        }
+
+        private String sql(String metodo, Object[] args) {
+            String sql = sqlPreparado != null ? sqlPreparado
+                    : (args != null && args.length > 0 && args[0] instanceof String s ? s : "(lote)");
+            return lote > 0 ? sql + " -- lote de " + lote : sql;
+        }
+    }
+
+    // equals/hashCode por identidad: Hibernate guarda los statements en mapas
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, Object destino, InvocationHandler handler) {
+        if (destino == null) return null;
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, metodo, args) ->
+                switch (metodo.getName()) {
+                    case "equals" -> args != null && args.length == 1 ? proxy == args[0] : handler.invoke(proxy, metodo, args);
+                    case "hashCode" -> args == null ? System.identityHashCode(proxy) : handler.invoke(proxy, metodo, args);
+                    default -> handler.invoke(proxy, metodo, args);
+                });
+    }
+
+    private static Object invocar(Object destino, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
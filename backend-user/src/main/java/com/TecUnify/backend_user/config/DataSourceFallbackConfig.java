@@ -1,16 +1,15 @@
 package com.TecUnify.backend_user.config;
 
-import jakarta.annotation.PostConstruct;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 
 import javax.sql.DataSource;
-import java.sql.Connection;
-import java.sql.SQLException;
 
 @Configuration
 public class DataSourceFallbackConfig {
@@ -28,25 +27,56 @@ public class DataSourceFallbackConfig {
     @Value("${spring.datasource.driver-class-name:org.postgresql.Driver}")
     private String pgDriver;
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean hilosVirtuales;
+
+    // Conexiones pedidas a la vez en modo hilos virtuales (por defecto, el tamaño del pool)
+    @Value("${app.datasource.limite-concurrencia:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int limiteConcurrencia;
+
+    // Medir cada sentencia y guardar las lentas (ver RegistroConsultasLentas)
+    @Value("${app.sql.consultas-lentas.habilitado:true}")
+    private boolean detectarConsultasLentas;
+
+    // Tamaño, timeouts, detección de fugas y validación (spring.datasource.hikari.*)
     @Bean
-    public DataSource dataSource() {
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariConfig hikariConfig() {
+        return new HikariConfig();
+    }
+
+    @Bean(destroyMethod = "close")
+    public DataSource dataSource(HikariConfig hikariConfig, RegistroConsultasLentas registroConsultasLentas) {
+        HikariDataSource pool = crearPool(hikariConfig);
+        DataSource dataSource = pool;
+        if (detectarConsultasLentas) {
+            dataSource = new DataSourceConsultasLentas(dataSource, registroConsultasLentas);
+        }
+        if (!hilosVirtuales) {
+            return dataSource;
+        }
+        logger.info("Virtual threads enabled: limiting concurrent connection requests to {}", limiteConcurrencia);
+        return new DataSourceLimitado(dataSource, limiteConcurrencia, pool.getConnectionTimeout());
+    }
+
+    private HikariDataSource crearPool(HikariConfig hikariConfig) {
         // Try PostgreSQL first
         if (pgUrl != null && !pgUrl.isBlank()) {
+            HikariConfig pg = new HikariConfig();
+            hikariConfig.copyStateTo(pg);
+            pg.setPoolName("tecunify-pg");
+            pg.setDriverClassName(pgDriver);
+            pg.setJdbcUrl(pgUrl);
+            pg.setUsername(pgUser);
+            pg.setPassword(pgPassword);
+            // Falla rápido si no hay conexión inicial, para poder usar H2
+            pg.setInitializationFailTimeout(1);
             try {
-                DriverManagerDataSource pg = new DriverManagerDataSource();
-                pg.setDriverClassName(pgDriver);
-                pg.setUrl(pgUrl);
-                pg.setUsername(pgUser);
-                pg.setPassword(pgPassword);
-
-                // quick connection test
-                try (Connection c = pg.getConnection()) {
-                    if (c != null && !c.isClosed()) {
-                        logger.info("Connected to PostgreSQL at {}", pgUrl);
-                        return pg;
-                    }
-                }
-            } catch (SQLException | RuntimeException e) {
+                HikariDataSource ds = new HikariDataSource(pg);
+                logger.info("Connected to PostgreSQL at {} (pool max={}, minIdle={})",
+                        pgUrl, ds.getMaximumPoolSize(), ds.getMinimumIdle());
+                return ds;
+            } catch (RuntimeException e) {
                 logger.warn("PostgreSQL not available ({}). Falling back to H2 in-memory.", e.getMessage());
             }
         } else {
@@ -54,12 +84,14 @@ public class DataSourceFallbackConfig {
         }
 
         // Fallback: H2 in-memory
-        DriverManagerDataSource h2 = new DriverManagerDataSource();
+        HikariConfig h2 = new HikariConfig();
+        hikariConfig.copyStateTo(h2);
+        h2.setPoolName("tecunify-h2");
         h2.setDriverClassName("org.h2.Driver");
-        h2.setUrl("jdbc:h2:mem:tecunify;DB_CLOSE_DELAY=-1;MODE=PostgreSQL");
+        h2.setJdbcUrl("jdbc:h2:mem:tecunify;DB_CLOSE_DELAY=-1;MODE=PostgreSQL");
         h2.setUsername("sa");
         h2.setPassword("");
         logger.info("Using H2 in-memory database for development.");
-        return h2;
+        return new HikariDataSource(h2);
     }
 }
@@ -0,0 +1,117 @@
+package com.TecUnify.backend_user.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limita cuántos hilos pueden tener una conexión a la vez. Con hilos
+ * virtuales puede haber miles de peticiones concurrentes: esperan aquí
+ * (en orden de llegada y sin bloquear hilos de plataforma) en lugar de
+ * amontonarse en el pool. El permiso se devuelve al cerrar la conexión.
+ */
+public class DataSourceLimitado extends DelegatingDataSource implements Closeable {
+
+    private final Semaphore permisos;
+    private final int limite;
+    private final long esperaMaximaMs;
+
+    public DataSourceLimitado(DataSource destino, int limite, long esperaMaximaMs) {
+        super(destino);
+        this.permisos = new Semaphore(limite, true);
+        this.limite = limite;
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return liberarAlCerrar(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        try {
+            return liberarAlCerrar(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    // Conexiones entregadas a través de este límite y aún no cerradas
+    public int getEnUso() {
+        return limite - permisos.availablePermits();
+    }
+
+    public int getEsperando() {
+        return permisos.getQueueLength();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (getTargetDataSource() instanceof Closeable c) {
+            c.close();
+        }
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permisos.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "No hay conexión disponible tras " + esperaMaximaMs + " ms (" + getEsperando() + " en espera)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido esperando una conexión", e);
+        }
+    }
+
+    private Connection liberarAlCerrar(Connection conexion) {
+        AtomicBoolean cerrada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, metodo, args) -> {
+                    switch (metodo.getName()) {
+                        case "close":
+                            try {
+                                conexion.close();
+                            } finally {
+                                if (cerrada.compareAndSet(false, true)) permisos.release();
+                            }
+                            return null;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            try {
+                                return metodo.invoke(conexion, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            }
+                    }
+                });
+    }
+}
@@ -0,0 +1,33 @@
+package com.TecUnify.backend_user.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Open-in-view propio (spring.jpa.open-in-view: false desactiva el de Spring Boot).
+ * Los controladores siguen mapeando asociaciones lazy después del servicio, así
+ * que se mantiene para todo salvo los streams SSE: ahí el EntityManager del
+ * request retendría su conexión JDBC mientras el stream siga abierto (hasta
+ * app.sse.timeout-ms), y unos pocos clientes agotarían el pool.
+ */
+@Configuration
+public class JpaWebConfig implements WebMvcConfigurer {
+
+    static final String[] SIN_OPEN_IN_VIEW = {
+            "/api/espacios/*/disponibilidad/stream"
+    };
+
+    @Bean
+    public OpenEntityManagerInViewInterceptor openEntityManagerInViewInterceptor() {
+        return new OpenEntityManagerInViewInterceptor();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addWebRequestInterceptor(openEntityManagerInViewInterceptor())
+                .excludePathPatterns(SIN_OPEN_IN_VIEW);
+    }
+}
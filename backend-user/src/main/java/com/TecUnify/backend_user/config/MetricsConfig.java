@@ -0,0 +1,45 @@
+package com.TecUnify.backend_user.config;
+
+import de.codecentric.boot.admin.server.config.EnableAdminServer;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Métricas de la aplicación. Los endpoints HTTP ya se miden en
+ * http.server.requests; los servicios usan @Timed. Todo se ve en el
+ * Spring Boot Admin embebido (/admin), que como /actuator pide el usuario
+ * de monitoreo (ver SecurityConfig).
+ */
+@Configuration
+@EnableAdminServer
+public class MetricsConfig {
+
+    // Habilita @Timed en los beans de servicio
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    // Cola del límite de conexiones en modo hilos virtuales (no existe si está desactivado)
+    @Bean
+    public MeterBinder dataSourceLimitadoMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof DataSourceLimitado limitado) {
+                Gauge.builder("datasource.limite.activas", limitado, DataSourceLimitado::getEnUso)
+                        .description("Conexiones entregadas a través del límite")
+                        .register(registry);
+                Gauge.builder("datasource.limite.pendientes", limitado, DataSourceLimitado::getEsperando)
+                        .description("Hilos esperando un permiso de conexión")
+                        .register(registry);
+                Gauge.builder("datasource.limite.max", limitado, DataSourceLimitado::getLimite)
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.TecUnify.backend_user.config;
+
+import com.TecUnify.backend_user.dto.ConsultaLentaDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Buffer circular con las últimas sentencias SQL lentas. Registrar es una
+ * escritura en un slot del arreglo: no hay locks ni logging en el camino de
+ * la consulta, y al llenarse se sobrescriben las más antiguas.
+ */
+@Component
+public class RegistroConsultasLentas {
+
+    private static final int MAX_LARGO_PARAMETRO = 100;
+
+    private final long umbralNanos;
+    private final boolean mostrarParametros;
+    private final AtomicReferenceArray<ConsultaLentaDTO> buffer;
+    private final AtomicLong siguiente = new AtomicLong();
+
+    public RegistroConsultasLentas(@Value("${app.sql.consultas-lentas.umbral-ms:200}") long umbralMs,
+                                   @Value("${app.sql.consultas-lentas.capacidad:200}") int capacidad,
+                                   @Value("${app.sql.consultas-lentas.mostrar-parametros:false}") boolean mostrarParametros) {
+        this.umbralNanos = TimeUnit.MILLISECONDS.toNanos(umbralMs);
+        this.mostrarParametros = mostrarParametros;
+        this.buffer = new AtomicReferenceArray<>(capacidad);
+    }
+
+    public boolean esLenta(long nanos) {
+        return nanos >= umbralNanos;
+    }
+
+    // false: de cada parámetro se guarda solo la posición y el tipo, nunca el valor
+    public boolean isMostrarParametros() {
+        return mostrarParametros;
+    }
+
+    public long getUmbralMs() {
+        return TimeUnit.NANOSECONDS.toMillis(umbralNanos);
+    }
+
+    // Total de consultas lentas desde el arranque (incluidas las ya sobrescritas)
+    public long getTotal() {
+        return siguiente.get();
+    }
+
+    public void registrar(String sql, long nanos, List<Object> parametros) {
+        List<String> texto = new ArrayList<>(parametros.size());
+        for (Object p : parametros) {
+            String v = String.valueOf(p);
+            texto.add(v.length() > MAX_LARGO_PARAMETRO ? v.substring(0, MAX_LARGO_PARAMETRO) + "..." : v);
+        }
+        ConsultaLentaDTO consulta = new ConsultaLentaDTO(Instant.now(), TimeUnit.NANOSECONDS.toMillis(nanos),
+                sql, texto, endpointActual());
+        int slot = (int) (siguiente.getAndIncrement() % buffer.length());
+        buffer.set(slot, consulta);
+    }
+
+    // Más recientes primero
+    public List<ConsultaLentaDTO> recientes() {
+        List<ConsultaLentaDTO> lista = new ArrayList<>(buffer.length());
+        for (int i = 0; i < buffer.length(); i++) {
+            ConsultaLentaDTO c = buffer.get(i);
+            if (c != null) lista.add(c);
+        }
+        lista.sort(Comparator.comparing(ConsultaLentaDTO::fecha).reversed());
+        return lista;
+    }
+
+    public void limpiar() {
+        for (int i = 0; i < buffer.length(); i++) {
+            buffer.set(i, null);
+        }
+    }
+
+    private static String endpointActual() {
+        RequestAttributes attrs = RequestContextHolder.getRequestAttributes();
+        if (attrs instanceof ServletRequestAttributes servlet) {
+            return servlet.getRequest().getMethod() + " " + servlet.getRequest().getRequestURI();
+        }
+        return "[" + Thread.currentThread().getName() + "]";
+    }
+}
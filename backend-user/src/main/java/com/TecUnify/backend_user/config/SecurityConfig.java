@@ -1,15 +1,46 @@
 package com.TecUnify.backend_user.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
 public class SecurityConfig {
+    private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
+
+    static final String ROL_MONITOREO = "MONITOREO";
+
+    // Actuator y Spring Boot Admin: HTTP Basic con el usuario de monitoreo
+    // (app.monitoreo.*); solo health e info quedan abiertos
+    @Bean
+    @Order(1)
+    public SecurityFilterChain monitoreoFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher("/actuator/**", "/admin/**")
+                .csrf(csrf -> csrf.disable()) // el cliente de Spring Boot Admin registra por POST
+                .cors(Customizer.withDefaults())
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/info").permitAll()
+                        .anyRequest().hasRole(ROL_MONITOREO)
+                )
+                .httpBasic(Customizer.withDefaults());
+
+        return http.build();
+    }
 
     @Bean
+    @Order(2)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf.disable()) // Desactivar CSRF (importante para APIs)
@@ -21,4 +52,24 @@ public class SecurityConfig {
 
         return http.build();
     }
+
+    // Sin contraseña configurada no hay usuario: el monitoreo queda cerrado
+    @Bean
+    public UserDetailsService monitoreoUsuarios(@Value("${app.monitoreo.usuario:monitor}") String usuario,
+                                                @Value("${app.monitoreo.password:}") String password,
+                                                PasswordEncoder passwordEncoder) {
+        if (password.isBlank()) {
+            logger.warn("app.monitoreo.password no está definida: /actuator y /admin quedan inaccesibles");
+            return new InMemoryUserDetailsManager();
+        }
+        return new InMemoryUserDetailsManager(User.withUsername(usuario)
+                .password(passwordEncoder.encode(password))
+                .roles(ROL_MONITOREO)
+                .build());
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    }
 }
@@ -1,6 +1,7 @@
 package com.TecUnify.backend_user.controller;
 
 import com.TecUnify.backend_user.dto.AuthResponse;
+import com.TecUnify.backend_user.dto.IdentidadUsuario;
 import com.TecUnify.backend_user.dto.UserDTO;
 import com.TecUnify.backend_user.model.User;
 import com.TecUnify.backend_user.service.UserService;
@@ -59,12 +60,12 @@ public class AuthController {
     @GetMapping("/validate")
     public ResponseEntity<?> validate(@RequestParam("email") String email) {
         try {
-            User user = userService.findByEmail(email);
+            IdentidadUsuario user = userService.findIdentidadByEmail(email);
             if (user == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body("Usuario no encontrado");
             }
-            return ResponseEntity.ok(UserDTO.fromEntity(user));
+            return ResponseEntity.ok(user.toDTO());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -74,12 +75,12 @@ public class AuthController {
     @GetMapping("/me")
     public ResponseEntity<?> getCurrentUser(@RequestParam("email") String email) {
         try {
-            User user = userService.findByEmail(email);
+            IdentidadUsuario user = userService.findIdentidadByEmail(email);
             if (user == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body("Usuario no encontrado");
             }
-            return ResponseEntity.ok(UserDTO.fromEntity(user));
+            return ResponseEntity.ok(user.toDTO());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -0,0 +1,81 @@
+package com.TecUnify.backend_user.controller;
+
+import com.TecUnify.backend_user.dto.IdentidadUsuario;
+import com.TecUnify.backend_user.service.CatalogoBootstrap;
+import com.TecUnify.backend_user.service.ReservaService;
+import com.TecUnify.backend_user.service.UserService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Datos iniciales de la app tras el login en un solo request: catálogo
+ * (espacios, tipos, motivos), usuario (/api/auth/me) y sus reservas
+ * (/api/reservas/mi). El catálogo sale precomprimido de CatalogoBootstrap;
+ * si el cliente manda la versión que ya tiene, va null.
+ */
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/bootstrap")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.ETAG)
+public class BootstrapController {
+
+    private final CatalogoBootstrap catalogoBootstrap;
+    private final UserService userService;
+    private final ReservaService reservaService;
+
+    @GetMapping
+    public ResponseEntity<?> bootstrap(@RequestParam("email") String email,
+                                       @RequestParam(value = "catalogoVersion", required = false) String catalogoVersion,
+                                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        IdentidadUsuario user = userService.findIdentidadByEmail(email);
+        if (user == null) return ResponseEntity.status(404).body("Usuario no encontrado");
+
+        CatalogoBootstrap.Catalogo catalogo = catalogoBootstrap.actual();
+        if (catalogo == null) return ResponseEntity.status(503).body("Catálogo no disponible");
+
+        boolean gzip = aceptaGzip(acceptEncoding);
+        try {
+            byte[] cuerpo = catalogoBootstrap.respuesta(catalogo, catalogoVersion,
+                    user.toDTO(), reservaService.getByUserId(user.id()), gzip);
+            ResponseEntity.BodyBuilder r = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .cacheControl(CacheControl.noStore())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) r.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return r.body(cuerpo);
+        } catch (JsonProcessingException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error: " + e.getMessage());
+        }
+    }
+
+    // Solo el catálogo, cacheable por el navegador con la versión como ETag
+    @GetMapping("/catalogo")
+    public ResponseEntity<?> catalogo(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CatalogoBootstrap.Catalogo catalogo = catalogoBootstrap.actual();
+        if (catalogo == null) return ResponseEntity.status(503).body("Catálogo no disponible");
+
+        String etag = "\"" + catalogo.version() + "\"";
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        boolean gzip = aceptaGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder r = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) r.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return r.body(gzip ? catalogo.gzip() : catalogo.json());
+    }
+
+    private static boolean aceptaGzip(String acceptEncoding) {
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+}
@@ -1,13 +1,22 @@
 package com.TecUnify.backend_user.controller;
 
 import com.TecUnify.backend_user.dto.EspacioDTO;
+import com.TecUnify.backend_user.dto.HorariosDisponiblesDTO;
 import com.TecUnify.backend_user.model.Espacio;
+import com.TecUnify.backend_user.service.BuscadorEspaciosLibres;
+import com.TecUnify.backend_user.service.BusquedaEspacios;
+import com.TecUnify.backend_user.service.DisponibilidadEventos;
 import com.TecUnify.backend_user.service.EspacioService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
 @RequiredArgsConstructor
@@ -16,13 +25,50 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class EspacioController {
 
+    private static final int MAX_LIMITE = 200;
+
     private final EspacioService espacioService;
+    private final DisponibilidadEventos disponibilidadEventos;
+    private final BusquedaEspacios busquedaEspacios;
+    private final BuscadorEspaciosLibres buscadorEspaciosLibres;
 
     @GetMapping
     public ResponseEntity<List<EspacioDTO>> listar() {
         return ResponseEntity.ok(espacioService.getAllActivos());
     }
 
+    // Búsqueda por texto (nombre, ubicación, equipamiento...) con facetas de tipo y capacidad
+    @GetMapping("/buscar")
+    public ResponseEntity<?> buscar(@RequestParam(value = "q", required = false) String q,
+                                    @RequestParam(value = "tipoEspacioId", required = false) Long tipoEspacioId,
+                                    @RequestParam(value = "capacidad", required = false) String capacidad,
+                                    @RequestParam(value = "limite", defaultValue = "50") int limite) {
+        try {
+            int tamano = Math.max(1, Math.min(limite, MAX_LIMITE));
+            return ResponseEntity.ok(busquedaEspacios.buscar(q, tipoEspacioId, capacidad, tamano));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Espacios libres en una fecha y horario, filtrados por tipo, capacidad mínima y equipamiento
+    @GetMapping("/libres")
+    public ResponseEntity<?> libres(@RequestParam("fecha") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+                                    @RequestParam("horaInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime horaInicio,
+                                    @RequestParam("horaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime horaFin,
+                                    @RequestParam(value = "tipoEspacioId", required = false) Long tipoEspacioId,
+                                    @RequestParam(value = "capacidadMin", required = false) Integer capacidadMin,
+                                    @RequestParam(value = "equipamiento", required = false) String equipamiento,
+                                    @RequestParam(value = "limite", defaultValue = "20") int limite) {
+        try {
+            int tamano = Math.max(1, Math.min(limite, MAX_LIMITE));
+            return ResponseEntity.ok(buscadorEspaciosLibres.buscar(fecha, horaInicio, horaFin,
+                    tipoEspacioId, capacidadMin, equipamiento, tamano));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> obtener(@PathVariable Long id) {
         EspacioDTO dto = espacioService.getById(id);
@@ -30,13 +76,34 @@ public class EspacioController {
                 : ResponseEntity.status(404).body("Espacio no encontrado");
     }
 
+    @GetMapping("/{id}/horarios-disponibles")
+    public ResponseEntity<?> horariosDisponibles(@PathVariable Long id,
+                                                 @RequestParam("fecha") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        HorariosDisponiblesDTO dto = espacioService.getHorariosDisponibles(id, fecha);
+        return dto != null ? ResponseEntity.ok(dto)
+                : ResponseEntity.status(404).body("Espacio no encontrado");
+    }
+
+    // Cambios de disponibilidad en vivo (SSE): evento "disponibilidad" con las ventanas libres.
+    // Sin open-in-view (JpaWebConfig): cada consulta devuelve su conexión al terminar
+    @GetMapping(value = "/{id}/disponibilidad/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamDisponibilidad(@PathVariable Long id,
+                                                           @RequestParam("fecha") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        if (espacioService.getById(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        SseEmitter emitter = disponibilidadEventos.suscribir(id, fecha);
+        return emitter != null ? ResponseEntity.ok(emitter)
+                : ResponseEntity.status(503).build();
+    }
+
     @PostMapping
     public ResponseEntity<?> crear(@RequestBody EspacioDTO dto,
                                    @RequestHeader("X-User-Role") String role) {
         if (!"ADMIN".equals(role))
             return ResponseEntity.status(403).body("Solo administradores");
 
-        return ResponseEntity.status(201).body(espacioService.create(dto));
+        return ResponseEntity.status(201).body(EspacioDTO.fromEntity(espacioService.create(dto)));
     }
 
     @PutMapping("/{id}")
@@ -46,7 +113,7 @@ public class EspacioController {
             return ResponseEntity.status(403).body("Solo administradores");
 
         Espacio espacio = espacioService.update(id, dto);
-        return espacio != null ? ResponseEntity.ok(espacio)
+        return espacio != null ? ResponseEntity.ok(EspacioDTO.fromEntity(espacio))
                 : ResponseEntity.status(404).body("Espacio no encontrado");
     }
 
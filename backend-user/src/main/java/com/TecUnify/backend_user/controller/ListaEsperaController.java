@@ -0,0 +1,67 @@
+package com.TecUnify.backend_user.controller;
+
+import com.TecUnify.backend_user.dto.IdentidadUsuario;
+import com.TecUnify.backend_user.dto.ListaEsperaDTO;
+import com.TecUnify.backend_user.dto.ReservaDTO;
+import com.TecUnify.backend_user.model.ListaEspera;
+import com.TecUnify.backend_user.service.ListaEsperaService;
+import com.TecUnify.backend_user.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/lista-espera")
+@CrossOrigin(origins = "*")
+public class ListaEsperaController {
+
+    private final ListaEsperaService listaEsperaService;
+    private final UserService userService;
+
+    // Usuario: anotarse para un horario ocupado; se convierte en reserva si se libera
+    @PostMapping
+    public ResponseEntity<?> unirse(@RequestBody ReservaDTO dto, @RequestParam("email") String email) {
+        IdentidadUsuario user = userService.findIdentidadByEmail(email);
+        if (user == null) return ResponseEntity.status(404).body("Usuario no encontrado");
+
+        dto.setUserId(user.id());
+        try {
+            ListaEspera espera = listaEsperaService.unirse(dto);
+            if (espera == null) return ResponseEntity.status(404).body("Espacio no encontrado");
+            return ResponseEntity.status(201).body(ListaEsperaDTO.fromEntity(espera));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
+    }
+
+    // Usuario: sus entradas (en espera, promovidas o retiradas)
+    @GetMapping("/mi")
+    public ResponseEntity<?> misEntradas(@RequestParam("email") String email) {
+        IdentidadUsuario user = userService.findIdentidadByEmail(email);
+        if (user == null) return ResponseEntity.status(404).body("Usuario no encontrado");
+
+        return ResponseEntity.ok(listaEsperaService.getByUserId(user.id()));
+    }
+
+    // Usuario: salir de la lista de espera
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> retirar(@PathVariable Long id, @RequestParam("email") String email) {
+        IdentidadUsuario user = userService.findIdentidadByEmail(email);
+        if (user == null) return ResponseEntity.status(404).body("Usuario no encontrado");
+
+        ListaEspera espera = listaEsperaService.getById(id);
+        if (espera == null) return ResponseEntity.status(404).body("Entrada no encontrada");
+        if (!espera.getUsuario().getId().equals(user.id())) {
+            return ResponseEntity.status(403).body("No puedes retirar esta entrada");
+        }
+        try {
+            listaEsperaService.retirar(espera);
+            return ResponseEntity.ok("Retirada");
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.TecUnify.backend_user.controller;
 
-import com.TecUnify.backend_user.model.MotivoReserva;
+import com.TecUnify.backend_user.dto.MotivoReservaDTO;
 import com.TecUnify.backend_user.service.MotivoReservaService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -16,9 +16,9 @@ public class MotivoReservaController {
     private final MotivoReservaService motivoReservaService;
 
     @GetMapping
-    public ResponseEntity<List<MotivoReserva>> getAllMotivos() {
+    public ResponseEntity<List<MotivoReservaDTO>> getAllMotivos() {
         try {
-            List<MotivoReserva> motivos = motivoReservaService.getAllMotivosActivos();
+            List<MotivoReservaDTO> motivos = motivoReservaService.getAllMotivosActivos();
             return ResponseEntity.ok(motivos);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -26,9 +26,9 @@ public class MotivoReservaController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<MotivoReserva> getMotivoById(@PathVariable Long id) {
+    public ResponseEntity<MotivoReservaDTO> getMotivoById(@PathVariable Long id) {
         try {
-            MotivoReserva motivo = motivoReservaService.getMotivoById(id);
+            MotivoReservaDTO motivo = motivoReservaService.getMotivoById(id);
             return ResponseEntity.ok(motivo);
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
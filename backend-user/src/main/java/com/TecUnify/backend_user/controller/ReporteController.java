@@ -0,0 +1,36 @@
+package com.TecUnify.backend_user.controller;
+
+import com.TecUnify.backend_user.service.ReporteService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/reportes")
+@CrossOrigin(origins = "*")
+public class ReporteController {
+
+    private final ReporteService reporteService;
+
+    // Admin: horas reservadas por espacio, tipo, día u hora
+    @GetMapping("/ocupacion")
+    public ResponseEntity<?> ocupacion(@RequestHeader("X-User-Role") String role,
+                                       @RequestParam("desde") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                                       @RequestParam("hasta") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+                                       @RequestParam(value = "agrupar", defaultValue = "espacio") String agrupar,
+                                       @RequestParam(value = "espacioId", required = false) Long espacioId,
+                                       @RequestParam(value = "tipoEspacioId", required = false) Long tipoEspacioId) {
+        if (!"ADMIN".equals(role)) {
+            return ResponseEntity.status(403).body("Solo administradores");
+        }
+        try {
+            return ResponseEntity.ok(reporteService.ocupacion(desde, hasta, agrupar, espacioId, tipoEspacioId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -1,14 +1,27 @@
 package com.TecUnify.backend_user.controller;
 
+import com.TecUnify.backend_user.dto.IdentidadUsuario;
 import com.TecUnify.backend_user.dto.ReservaDTO;
+import com.TecUnify.backend_user.dto.ReservaPaginaDTO;
+import com.TecUnify.backend_user.dto.ReservaRecurrenteDTO;
+import com.TecUnify.backend_user.dto.ReservaRecurrenteResultadoDTO;
+import com.TecUnify.backend_user.model.EstadoReserva;
 import com.TecUnify.backend_user.model.Reserva;
-import com.TecUnify.backend_user.model.User;
+import com.TecUnify.backend_user.model.Role;
+import com.TecUnify.backend_user.repository.ReservaFiltro;
+import com.TecUnify.backend_user.service.ExportacionService;
+import com.TecUnify.backend_user.service.IdempotenciaStore;
 import com.TecUnify.backend_user.service.ReservaService;
 import com.TecUnify.backend_user.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
 @RequiredArgsConstructor
@@ -17,64 +30,205 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class ReservaController {
 
+    private static final int MAX_LIMITE = 200;
+    private static final int MAX_IDEMPOTENCY_KEY = 200;
+
     private final ReservaService reservaService;
     private final UserService userService;
+    private final ExportacionService exportacionService;
+    private final IdempotenciaStore idempotenciaStore;
 
     // Usuario: ver solo sus reservas
     @GetMapping("/mi")
     public ResponseEntity<?> misMisReservas(@RequestParam("email") String email) {
-        User user = userService.findByEmail(email);
+        IdentidadUsuario user = userService.findIdentidadByEmail(email);
         if (user == null) return ResponseEntity.status(404).body("Usuario no encontrado");
         
-        List<ReservaDTO> reservas = reservaService.getByUserId(user.getId());
+        List<ReservaDTO> reservas = reservaService.getByUserId(user.id());
         return ResponseEntity.ok(reservas);
     }
 
-    // Admin: ver todas
+    // Admin: ver todas (paginado por cursor, con filtros opcionales)
     @GetMapping
-    public ResponseEntity<?> listarTodas(@RequestHeader("X-User-Role") String role) {
+    public ResponseEntity<?> listarTodas(@RequestHeader("X-User-Role") String role,
+                                         @RequestParam(value = "estado", required = false) String estado,
+                                         @RequestParam(value = "desde", required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                                         @RequestParam(value = "hasta", required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+                                         @RequestParam(value = "espacioId", required = false) Long espacioId,
+                                         @RequestParam(value = "cursor", required = false) String cursor,
+                                         @RequestParam(value = "limite", defaultValue = "50") int limite) {
         if (!"ADMIN".equals(role)) {
             return ResponseEntity.status(403).body("Solo administradores");
         }
-        List<ReservaDTO> list = reservaService.getAll();
-        return ResponseEntity.ok(list);
+        try {
+            ReservaFiltro filtro = filtro(estado, desde, hasta, espacioId);
+            int tamano = Math.max(1, Math.min(limite, MAX_LIMITE));
+            ReservaPaginaDTO pagina = reservaService.getPagina(filtro, cursor, tamano);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Admin: exportar todas las reservas filtradas (CSV o NDJSON), en streaming
+    @GetMapping("/exportar")
+    public void exportar(@RequestHeader("X-User-Role") String role,
+                         @RequestParam(value = "estado", required = false) String estado,
+                         @RequestParam(value = "desde", required = false)
+                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                         @RequestParam(value = "hasta", required = false)
+                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+                         @RequestParam(value = "espacioId", required = false) Long espacioId,
+                         @RequestParam(value = "formato", defaultValue = "csv") String formato,
+                         HttpServletResponse response) throws IOException {
+        if (!"ADMIN".equals(role)) {
+            responder(response, 403, "Solo administradores");
+            return;
+        }
+        boolean ndjson = "ndjson".equalsIgnoreCase(formato);
+        if (!ndjson && !"csv".equalsIgnoreCase(formato)) {
+            responder(response, 400, "Formato inválido: use csv o ndjson");
+            return;
+        }
+        ReservaFiltro filtro;
+        try {
+            filtro = filtro(estado, desde, hasta, espacioId);
+        } catch (IllegalArgumentException e) {
+            responder(response, 400, e.getMessage());
+            return;
+        }
+
+        String archivo = "reservas-" + LocalDate.now() + (ndjson ? ".ndjson" : ".csv");
+        response.setContentType(ndjson ? "application/x-ndjson" : "text/csv");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + archivo + "\"");
+        if (ndjson) {
+            exportacionService.exportarNdjson(filtro, response.getOutputStream());
+        } else {
+            exportacionService.exportarCsv(filtro, response.getOutputStream());
+        }
     }
 
-    // Usuario: crear reserva
+    // Usuario: crear reserva. Con Idempotency-Key, un reintento recibe la misma
+    // respuesta que el primer envío en vez de crear otra reserva.
     @PostMapping
-    public ResponseEntity<?> crear(@RequestBody ReservaDTO dto, @RequestParam("email") String email) {
-        User user = userService.findByEmail(email);
+    public ResponseEntity<?> crear(@RequestBody ReservaDTO dto, @RequestParam("email") String email,
+                                   @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return crearReserva(dto, email);
+        }
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY) {
+            return ResponseEntity.badRequest().body("Idempotency-Key demasiado larga");
+        }
+        return idempotenciaStore.ejecutar(email + "|" + idempotencyKey, huella(dto),
+                () -> crearReserva(dto, email));
+    }
+
+    private ResponseEntity<?> crearReserva(ReservaDTO dto, String email) {
+        IdentidadUsuario user = userService.findIdentidadByEmail(email);
         if (user == null) return ResponseEntity.status(404).body("Usuario no encontrado");
         
-        dto.setUserId(user.getId());
-        Reserva r = reservaService.create(dto);
-        return ResponseEntity.status(201).body(r);
+        dto.setUserId(user.id());
+        try {
+            Reserva r = reservaService.create(dto);
+            if (r == null) return ResponseEntity.status(404).body("Espacio no encontrado");
+            return ResponseEntity.status(201).body(ReservaDTO.fromEntity(r));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
+    }
+
+    // Staff/Admin: reserva recurrente (p. ej. todos los martes del semestre) o masiva
+    @PostMapping("/recurrentes")
+    public ResponseEntity<?> crearRecurrente(@RequestBody ReservaRecurrenteDTO dto, @RequestParam("email") String email) {
+        IdentidadUsuario user = userService.findIdentidadByEmail(email);
+        if (user == null) return ResponseEntity.status(404).body("Usuario no encontrado");
+        if (user.role() != Role.ADMIN && user.role() != Role.STAFF) {
+            return ResponseEntity.status(403).body("Solo staff o administradores");
+        }
+
+        dto.setUserId(user.id());
+        try {
+            ReservaRecurrenteResultadoDTO res = reservaService.createRecurrente(dto);
+            if (res == null) return ResponseEntity.status(404).body("Espacio no encontrado");
+            return ResponseEntity.status(res.getCreadas().isEmpty() ? 409 : 201).body(res);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
+    }
+
+    // Verificar si un espacio está libre en una fecha y horario
+    @PostMapping("/verificar-disponibilidad")
+    public ResponseEntity<?> verificarDisponibilidad(@RequestBody ReservaDTO dto) {
+        try {
+            return ResponseEntity.ok(reservaService.verificarDisponibilidad(dto));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     // Usuario: cancelar propia reserva
     @DeleteMapping("/{id}")
     public ResponseEntity<?> cancelar(@PathVariable Long id, @RequestParam("email") String email) {
-        User user = userService.findByEmail(email);
+        IdentidadUsuario user = userService.findIdentidadByEmail(email);
         if (user == null) return ResponseEntity.status(404).body("Usuario no encontrado");
 
         Reserva r = reservaService.getById(id);
         if (r == null) return ResponseEntity.status(404).body("Reserva no encontrada");
-        if (!r.getUsuario().getId().equals(user.getId())) {
+        if (!r.getUsuario().getId().equals(user.id())) {
             return ResponseEntity.status(403).body("No puedes cancelar esta reserva");
         }
 
-        reservaService.delete(id);
+        try {
+            reservaService.delete(id);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
         return ResponseEntity.ok("Cancelada");
     }
 
     // Admin: cambiar estado de reserva
     @PutMapping("/{id}/estado")
+    // version (opcional): la versión que vio el admin; 409 si otro cambio se adelantó
     public ResponseEntity<?> cambiarEstado(@PathVariable Long id, @RequestParam("estado") String estado,
+                                           @RequestParam(value = "version", required = false) Long version,
                                            @RequestHeader("X-User-Role") String role) {
         if (!"ADMIN".equals(role)) {
             return ResponseEntity.status(403).body("Solo administradores");
         }
-        Reserva r = reservaService.updateEstado(id, estado);
-        return r != null ? ResponseEntity.ok(r) : ResponseEntity.status(404).body("No encontrada");
+        try {
+            Reserva r = reservaService.updateEstado(id, estado, version);
+            return r != null ? ResponseEntity.ok(ReservaDTO.fromEntity(r)) : ResponseEntity.status(404).body("No encontrada");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
+    }
+
+    // Campos que definen la reserva pedida; la misma clave con otro contenido se rechaza
+    private static String huella(ReservaDTO dto) {
+        return String.join("|", String.valueOf(dto.getEspacioId()), String.valueOf(dto.getFechaReserva()),
+                String.valueOf(dto.getHoraInicio()), String.valueOf(dto.getHoraFin()),
+                String.valueOf(dto.getMotivo()), String.valueOf(dto.getObservaciones()),
+                String.valueOf(dto.getPrecioTotal()));
+    }
+
+    private static ReservaFiltro filtro(String estado, LocalDate desde, LocalDate hasta, Long espacioId) {
+        EstadoReserva estadoFiltro = estado != null && !estado.isBlank()
+                ? EstadoReserva.valueOf(estado.toUpperCase()) : null;
+        return new ReservaFiltro(estadoFiltro, desde, hasta, espacioId);
+    }
+
+    private static void responder(HttpServletResponse response, int status, String mensaje) throws IOException {
+        response.setStatus(status);
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(mensaje);
     }
-}
\ No newline at end of file
+}
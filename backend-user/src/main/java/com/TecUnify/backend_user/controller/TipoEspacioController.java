@@ -1,6 +1,6 @@
 package com.TecUnify.backend_user.controller;
 
-import com.TecUnify.backend_user.model.TipoEspacio;
+import com.TecUnify.backend_user.dto.TipoEspacioDTO;
 import com.TecUnify.backend_user.service.TipoEspacioService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -16,9 +16,9 @@ public class TipoEspacioController {
     private final TipoEspacioService tipoEspacioService;
 
     @GetMapping
-    public ResponseEntity<List<TipoEspacio>> getAllTipos() {
+    public ResponseEntity<List<TipoEspacioDTO>> getAllTipos() {
         try {
-            List<TipoEspacio> tipos = tipoEspacioService.getAllTiposActivos();
+            List<TipoEspacioDTO> tipos = tipoEspacioService.getAllTiposActivos();
             return ResponseEntity.ok(tipos);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -26,9 +26,9 @@ public class TipoEspacioController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<TipoEspacio> getTipoById(@PathVariable Long id) {
+    public ResponseEntity<TipoEspacioDTO> getTipoById(@PathVariable Long id) {
         try {
-            TipoEspacio tipo = tipoEspacioService.getTipoById(id);
+            TipoEspacioDTO tipo = tipoEspacioService.getTipoById(id);
             return ResponseEntity.ok(tipo);
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
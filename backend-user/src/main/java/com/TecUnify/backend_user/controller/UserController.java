@@ -38,7 +38,11 @@ public class UserController {
 
     @DeleteMapping("/reserva/{id}")
     public ResponseEntity<?> cancelarReserva(@PathVariable Long id) {
-        reservaService.cancelarReserva(id);
+        try {
+            reservaService.cancelarReserva(id);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
         return ResponseEntity.ok("Reserva cancelada");
     }
 
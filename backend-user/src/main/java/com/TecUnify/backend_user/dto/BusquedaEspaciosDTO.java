@@ -0,0 +1,16 @@
+package com.TecUnify.backend_user.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusquedaEspaciosDTO {
+    private Integer total;               // coincidencias antes de aplicar el límite
+    private List<EspacioDTO> items;      // ordenados por relevancia
+    private List<FacetaDTO> tipos;       // conteos por tipo de espacio
+    private List<FacetaDTO> capacidades; // conteos por rango de capacidad
+}
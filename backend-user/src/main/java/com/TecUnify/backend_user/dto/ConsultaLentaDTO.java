@@ -0,0 +1,11 @@
+package com.TecUnify.backend_user.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Sentencia SQL que superó el umbral de RegistroConsultasLentas.
+ */
+public record ConsultaLentaDTO(Instant fecha, long duracionMs, String sql, List<String> parametros,
+                               String endpoint) {
+}
@@ -0,0 +1,20 @@
+package com.TecUnify.backend_user.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DisponibilidadDTO {
+    private Long espacioId;
+    private LocalDate fechaReserva;
+    private LocalTime horaInicio;
+    private LocalTime horaFin;
+    private Boolean disponible;
+    private List<Long> conflictos; // ids de las reservas que se solapan
+}
@@ -0,0 +1,23 @@
+package com.TecUnify.backend_user.dto;
+
+import lombok.*;
+
+import java.time.LocalTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EspacioLibreDTO {
+    private Long espacioId;
+    private String nombre;
+    private String ubicacion;
+    private Integer capacidad;
+    private Long tipoEspacioId;
+    private String tipoEspacioNombre;
+    private String imagenUrl;
+
+    // Ventana libre contigua que contiene el horario pedido
+    private LocalTime libreDesde;
+    private LocalTime libreHasta;
+}
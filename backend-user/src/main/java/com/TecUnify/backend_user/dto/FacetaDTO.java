@@ -0,0 +1,13 @@
+package com.TecUnify.backend_user.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetaDTO {
+    private String valor;   // tipoEspacioId o rango de capacidad ("11-30"); se pasa tal cual como filtro
+    private String nombre;
+    private Integer cantidad;
+}
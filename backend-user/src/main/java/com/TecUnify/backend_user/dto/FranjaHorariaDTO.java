@@ -0,0 +1,13 @@
+package com.TecUnify.backend_user.dto;
+
+import lombok.*;
+
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FranjaHorariaDTO {
+    private LocalTime horaInicio;
+    private LocalTime horaFin;
+}
@@ -0,0 +1,17 @@
+package com.TecUnify.backend_user.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HorariosDisponiblesDTO {
+    private Long espacioId;
+    private LocalDate fecha;
+    private Integer minutosPorSlot;
+    private List<FranjaHorariaDTO> ventanas; // ventanas libres contiguas
+}
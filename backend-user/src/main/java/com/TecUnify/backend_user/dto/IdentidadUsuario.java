@@ -0,0 +1,28 @@
+package com.TecUnify.backend_user.dto;
+
+import com.TecUnify.backend_user.model.Role;
+import com.TecUnify.backend_user.model.User;
+
+/**
+ * Identidad inmutable de un usuario, guardada en IdentidadCache para no
+ * cargar la entidad User en cada request.
+ */
+public record IdentidadUsuario(Long id, String email, Role role, boolean activo,
+                               String firstName, String lastName, String phone) {
+
+    public static IdentidadUsuario of(User u) {
+        return new IdentidadUsuario(u.getId(), u.getEmail(), u.getRole(), !Boolean.FALSE.equals(u.getActive()),
+                u.getFirstName(), u.getLastName(), u.getPhone());
+    }
+
+    public UserDTO toDTO() {
+        return UserDTO.builder()
+                .id(id)
+                .email(email)
+                .firstName(firstName)
+                .lastName(lastName)
+                .phone(phone)
+                .role(role != null ? role.name() : null)
+                .build();
+    }
+}
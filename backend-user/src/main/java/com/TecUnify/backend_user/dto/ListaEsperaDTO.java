@@ -0,0 +1,41 @@
+package com.TecUnify.backend_user.dto;
+
+import com.TecUnify.backend_user.model.ListaEspera;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListaEsperaDTO {
+    private Long id;
+    private Long espacioId;
+    private String espacioNombre;
+    private LocalDate fechaReserva;
+    private LocalTime horaInicio;
+    private LocalTime horaFin;
+    private String motivo;
+    private String estado;
+    private Long reservaId;          // reserva creada al ser promovido
+    private LocalDateTime fechaCreacion;
+
+    // Requiere el espacio cargado (JOIN FETCH)
+    public static ListaEsperaDTO fromEntity(ListaEspera l) {
+        return ListaEsperaDTO.builder()
+                .id(l.getId())
+                .espacioId(l.getEspacio().getId())
+                .espacioNombre(l.getEspacio().getNombre())
+                .fechaReserva(l.getFechaReserva())
+                .horaInicio(l.getHoraInicio())
+                .horaFin(l.getHoraFin())
+                .motivo(l.getMotivo())
+                .estado(l.getEstado().name())
+                .reservaId(l.getReservaId())
+                .fechaCreacion(l.getFechaCreacion())
+                .build();
+    }
+}
@@ -0,0 +1,14 @@
+package com.TecUnify.backend_user.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MotivoReservaDTO {
+    private Long id;
+    private String nombre;
+    private String descripcion;
+    private Boolean activo;
+}
@@ -0,0 +1,13 @@
+package com.TecUnify.backend_user.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcupacionDTO {
+    private String clave;   // espacioId, tipoId, fecha (ISO) u hora ("09:00")
+    private String nombre;
+    private Double horasReservadas;
+}
@@ -0,0 +1,18 @@
+package com.TecUnify.backend_user.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReporteOcupacionDTO {
+    private String agrupacion; // espacio, tipo, dia u hora
+    private LocalDate desde;
+    private LocalDate hasta;
+    private Double totalHoras;
+    private List<OcupacionDTO> filas;
+}
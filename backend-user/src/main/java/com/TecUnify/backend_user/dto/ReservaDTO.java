@@ -3,17 +3,25 @@ package com.TecUnify.backend_user.dto;
 import com.TecUnify.backend_user.model.Reserva;
 import com.TecUnify.backend_user.model.EstadoReserva;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Data
+@NoArgsConstructor
 public class ReservaDTO {
 
     private Long id;
     private Long userId;
     private Long espacioId;
 
+    // Solo se completan en las consultas de lectura (proyecciones)
+    private String usuarioEmail;
+    private String usuarioNombre;
+    private String espacioNombre;
+
     private LocalDate fechaReserva;
     private LocalTime horaInicio;
     private LocalTime horaFin;
@@ -24,6 +32,30 @@ public class ReservaDTO {
 
     private Double precioTotal;
 
+    private Long version;
+
+    // Usado por las consultas "SELECT new ReservaDTO(...)" de ReservaRepository
+    public ReservaDTO(Long id, Long userId, String usuarioEmail, String usuarioNombre,
+                      Long espacioId, String espacioNombre,
+                      LocalDate fechaReserva, LocalTime horaInicio, LocalTime horaFin,
+                      String motivo, EstadoReserva estado, String observaciones, BigDecimal precioTotal,
+                      Long version) {
+        this.id = id;
+        this.userId = userId;
+        this.usuarioEmail = usuarioEmail;
+        this.usuarioNombre = usuarioNombre;
+        this.espacioId = espacioId;
+        this.espacioNombre = espacioNombre;
+        this.fechaReserva = fechaReserva;
+        this.horaInicio = horaInicio;
+        this.horaFin = horaFin;
+        this.motivo = motivo;
+        this.estado = estado != null ? estado.name() : null;
+        this.observaciones = observaciones;
+        this.precioTotal = precioTotal != null ? precioTotal.doubleValue() : null;
+        this.version = version;
+    }
+
     public static ReservaDTO fromEntity(Reserva r) {
         ReservaDTO dto = new ReservaDTO();
         dto.setId(r.getId());
@@ -38,6 +70,7 @@ public class ReservaDTO {
         dto.setPrecioTotal(
                 r.getPrecioTotal() != null ? r.getPrecioTotal().doubleValue() : null
         );
+        dto.setVersion(r.getVersion());
         return dto;
     }
 }
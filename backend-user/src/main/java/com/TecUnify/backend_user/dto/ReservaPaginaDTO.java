@@ -0,0 +1,14 @@
+package com.TecUnify.backend_user.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaPaginaDTO {
+    private List<ReservaDTO> items;
+    private String nextCursor; // null cuando no hay más páginas
+}
@@ -0,0 +1,33 @@
+package com.TecUnify.backend_user.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+public class ReservaRecurrenteDTO {
+
+    private Long userId;
+    private Long espacioId;
+
+    private LocalTime horaInicio;
+    private LocalTime horaFin;
+
+    // Regla de recurrencia: cada 'intervaloSemanas' semanas, los días indicados (0=Domingo, 1=Lunes, ...)
+    private LocalDate fechaInicio;
+    private LocalDate fechaFin;
+    private List<Integer> diasSemana;
+    private Integer intervaloSemanas;
+
+    // Fechas sueltas (reserva masiva), se suman a las de la regla
+    private List<LocalDate> fechas;
+
+    private String motivo;
+    private String observaciones;
+    private Double precioTotal;
+
+    // true: crea las fechas libres y reporta las demás; false: todo o nada
+    private Boolean omitirConflictos;
+}
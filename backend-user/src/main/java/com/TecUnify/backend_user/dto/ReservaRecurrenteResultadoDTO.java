@@ -0,0 +1,15 @@
+package com.TecUnify.backend_user.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaRecurrenteResultadoDTO {
+    private List<ReservaDTO> creadas;
+    private List<LocalDate> conflictos;
+}
@@ -0,0 +1,15 @@
+package com.TecUnify.backend_user.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TipoEspacioDTO {
+    private Long id;
+    private String nombre;
+    private String descripcion;
+    private String icono;
+    private Boolean activo;
+}
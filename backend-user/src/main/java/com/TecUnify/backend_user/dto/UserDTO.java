@@ -1,5 +1,6 @@
 package com.TecUnify.backend_user.dto;
 
+import com.TecUnify.backend_user.model.Role;
 import com.TecUnify.backend_user.model.User;
 import lombok.*;
 
@@ -15,6 +16,11 @@ public class UserDTO {
     private String phone;
     private String role;
 
+    // Usado por "SELECT new UserDTO(...)" (el rol llega como enum)
+    public UserDTO(Long id, String email, String firstName, String lastName, String phone, Role role) {
+        this(id, email, firstName, lastName, phone, role != null ? role.name() : null);
+    }
+
     public static UserDTO fromEntity(User u) {
         return UserDTO.builder()
                 .id(u.getId())
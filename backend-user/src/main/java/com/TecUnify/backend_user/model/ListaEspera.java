@@ -0,0 +1,63 @@
+package com.TecUnify.backend_user.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Entity
+@Table(name = "lista_espera")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ListaEspera {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private User usuario;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "espacio_id", nullable = false)
+    private Espacio espacio;
+
+    @Column(name = "fecha_reserva", nullable = false)
+    private LocalDate fechaReserva;
+
+    @Column(name = "hora_inicio", nullable = false)
+    private LocalTime horaInicio;
+
+    @Column(name = "hora_fin", nullable = false)
+    private LocalTime horaFin;
+
+    @Column(length = 200)
+    private String motivo;
+
+    @Column(name = "precio_total", precision = 10, scale = 2)
+    private BigDecimal precioTotal;
+
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private EstadoEspera estado = EstadoEspera.ESPERANDO;
+
+    // Reserva creada al promover la entrada
+    @Column(name = "reserva_id")
+    private Long reservaId;
+
+    @Column(name = "fecha_creacion")
+    private LocalDateTime fechaCreacion;
+
+    // Dos promociones concurrentes de la misma entrada: solo una confirma
+    @Version
+    private Long version;
+
+    @PrePersist
+    protected void onCreate() {
+        fechaCreacion = LocalDateTime.now();
+    }
+}
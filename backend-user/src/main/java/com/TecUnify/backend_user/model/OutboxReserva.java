@@ -0,0 +1,67 @@
+package com.TecUnify.backend_user.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+// Evento de una reserva escrito en la misma transacción que el cambio; RelayOutbox lo entrega después
+@Entity
+@Table(name = "outbox_reservas")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxReserva {
+    // IDENTITY (sin pool): para una misma reserva el orden de id es el orden de confirmación
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "reserva_id", nullable = false)
+    private Long reservaId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoEventoReserva tipo;
+
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    @Column(name = "espacio_id")
+    private Long espacioId;
+
+    @Column(name = "fecha_reserva")
+    private LocalDate fechaReserva;
+
+    @Column(name = "hora_inicio")
+    private LocalTime horaInicio;
+
+    @Column(name = "hora_fin")
+    private LocalTime horaFin;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado_anterior", length = 20)
+    private EstadoReserva estadoAnterior;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado_actual", length = 20)
+    private EstadoReserva estadoActual;
+
+    @Column(name = "creado_en", nullable = false)
+    private LocalDateTime creadoEn;
+
+    // null mientras esté pendiente de entrega
+    @Column(name = "procesado_en")
+    private LocalDateTime procesadoEn;
+
+    @Builder.Default
+    private Integer intentos = 0;
+
+    @Column(name = "siguiente_intento")
+    private LocalDateTime siguienteIntento;
+
+    @Column(name = "ultimo_error", length = 500)
+    private String ultimoError;
+}
@@ -14,8 +14,10 @@ import java.time.LocalTime;
 @AllArgsConstructor
 @Builder
 public class Reserva {
+    // Secuencia con pool (allocationSize = INCREMENT BY de reservas_id_seq) para permitir inserts en lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservas_seq")
+    @SequenceGenerator(name = "reservas_seq", sequenceName = "reservas_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -54,6 +56,10 @@ public class Reserva {
     @Column(name = "fecha_actualizacion")
     private LocalDateTime fechaActualizacion;
 
+    // Control optimista: un UPDATE con versión vieja falla en vez de pisar otro cambio
+    @Version
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         fechaCreacion = LocalDateTime.now();
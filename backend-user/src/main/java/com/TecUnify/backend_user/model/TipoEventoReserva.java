@@ -0,0 +1,7 @@
+package com.TecUnify.backend_user.model;
+
+public enum TipoEventoReserva {
+    CREADA,
+    ESTADO_CAMBIADO,
+    ELIMINADA
+}
@@ -1,11 +1,39 @@
 package com.TecUnify.backend_user.repository;
 
+import com.TecUnify.backend_user.dto.EspacioDTO;
 import com.TecUnify.backend_user.model.Espacio;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface EspacioRepository extends JpaRepository<Espacio, Long> {
 
     List<Espacio> findByActivoTrue();
+
+    String PROYECCION_DTO = "SELECT new com.TecUnify.backend_user.dto.EspacioDTO(" +
+            "e.id, e.nombre, e.descripcion, e.capacidad, e.activo, e.imagenUrl) FROM Espacio e ";
+
+    @Query(PROYECCION_DTO + "WHERE e.activo = true ORDER BY e.id")
+    List<EspacioDTO> findDTOByActivoTrue();
+
+    @Query(PROYECCION_DTO + "WHERE e.id = :id")
+    Optional<EspacioDTO> findDTOById(@Param("id") Long id);
+
+    // [id, nombre, tipoId, tipoNombre] de todos los espacios, para agrupar reportes
+    @Query("SELECT e.id, e.nombre, t.id, t.nombre FROM Espacio e LEFT JOIN e.tipoEspacio t")
+    List<Object[]> findNombresYTipos();
+
+    // [id, nombre, descripcion, ubicacion, equipamiento, capacidad, imagenUrl, tipoId, tipoNombre]
+    // de los espacios activos, para el índice de búsqueda
+    String CAMPOS_BUSQUEDA = "SELECT e.id, e.nombre, e.descripcion, e.ubicacion, e.equipamiento, e.capacidad, " +
+            "e.imagenUrl, t.id, t.nombre FROM Espacio e LEFT JOIN e.tipoEspacio t WHERE e.activo = true ";
+
+    @Query(CAMPOS_BUSQUEDA)
+    List<Object[]> findParaBusqueda();
+
+    @Query(CAMPOS_BUSQUEDA + "AND e.id = :id")
+    List<Object[]> findParaBusquedaPorId(@Param("id") Long id);
 }
@@ -6,11 +6,17 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface HorarioDisponibilidadRepository extends JpaRepository<HorarioDisponibilidad, Long> {
     List<HorarioDisponibilidad> findByEspacioIdAndActivoTrue(Long espacioId);
+
+    // [espacioId, diaSemana, horaInicio, horaFin] de los horarios activos de varios espacios
+    @Query("SELECT h.espacio.id, h.diaSemana, h.horaInicio, h.horaFin FROM HorarioDisponibilidad h " +
+           "WHERE h.activo = true AND h.espacio.id IN :espacioIds")
+    List<Object[]> findFranjasActivas(@Param("espacioIds") Collection<Long> espacioIds);
     
     @Query("SELECT h FROM HorarioDisponibilidad h WHERE h.espacio.id = :espacioId " +
            "AND h.diaSemana = :diaSemana " +
@@ -0,0 +1,29 @@
+package com.TecUnify.backend_user.repository;
+
+import com.TecUnify.backend_user.model.EstadoEspera;
+import com.TecUnify.backend_user.model.ListaEspera;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public interface ListaEsperaRepository extends JpaRepository<ListaEspera, Long> {
+
+    // Cola de un espacio y fecha, en orden de llegada, con usuario y espacio cargados
+    @Query("SELECT l FROM ListaEspera l JOIN FETCH l.usuario JOIN FETCH l.espacio " +
+           "WHERE l.espacio.id = :espacioId AND l.fechaReserva = :fecha AND l.estado = :estado ORDER BY l.id")
+    List<ListaEspera> findCola(@Param("espacioId") Long espacioId,
+                               @Param("fecha") LocalDate fecha,
+                               @Param("estado") EstadoEspera estado);
+
+    @Query("SELECT l FROM ListaEspera l JOIN FETCH l.espacio WHERE l.usuario.id = :userId " +
+           "ORDER BY l.fechaReserva DESC, l.horaInicio DESC")
+    List<ListaEspera> findByUsuarioId(@Param("userId") Long userId);
+
+    boolean existsByUsuarioIdAndEspacioIdAndFechaReservaAndHoraInicioAndHoraFinAndEstado(
+            Long usuarioId, Long espacioId, LocalDate fechaReserva, LocalTime horaInicio, LocalTime horaFin,
+            EstadoEspera estado);
+}
@@ -1,11 +1,24 @@
 package com.TecUnify.backend_user.repository;
 
+import com.TecUnify.backend_user.dto.MotivoReservaDTO;
 import com.TecUnify.backend_user.model.MotivoReserva;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MotivoReservaRepository extends JpaRepository<MotivoReserva, Long> {
     List<MotivoReserva> findByActivoTrue();
+
+    String PROYECCION_DTO = "SELECT new com.TecUnify.backend_user.dto.MotivoReservaDTO(" +
+            "m.id, m.nombre, m.descripcion, m.activo) FROM MotivoReserva m ";
+
+    @Query(PROYECCION_DTO + "WHERE m.activo = true ORDER BY m.id")
+    List<MotivoReservaDTO> findDTOByActivoTrue();
+
+    @Query(PROYECCION_DTO + "WHERE m.id = :id")
+    Optional<MotivoReservaDTO> findDTOById(@Param("id") Long id);
 }
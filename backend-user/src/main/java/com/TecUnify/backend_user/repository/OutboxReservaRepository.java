@@ -0,0 +1,36 @@
+package com.TecUnify.backend_user.repository;
+
+import com.TecUnify.backend_user.model.OutboxReserva;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxReservaRepository extends JpaRepository<OutboxReserva, Long> {
+
+    // Lote de eventos entregables: por reserva solo el pendiente más antiguo (el orden por
+    // reserva se mantiene aunque haya varias instancias) y solo si no está esperando un
+    // reintento, así una reserva en backoff no frena al resto. Las filas quedan bloqueadas
+    // hasta el fin de la transacción del relay; SKIP LOCKED hace que otra instancia tome
+    // las siguientes en vez de esperar
+    @Query(value = """
+            SELECT o.* FROM outbox_reservas o
+            WHERE o.procesado_en IS NULL
+              AND (o.siguiente_intento IS NULL OR o.siguiente_intento <= :ahora)
+              AND NOT EXISTS (SELECT 1 FROM outbox_reservas p
+                              WHERE p.reserva_id = o.reserva_id
+                                AND p.procesado_en IS NULL
+                                AND p.id < o.id)
+            ORDER BY o.id
+            LIMIT :lote
+            FOR UPDATE OF o SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxReserva> findPendientes(@Param("ahora") LocalDateTime ahora, @Param("lote") int lote);
+
+    @Modifying
+    @Query("DELETE FROM OutboxReserva o WHERE o.procesadoEn < :limite")
+    int purgarProcesados(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,11 @@
+package com.TecUnify.backend_user.repository;
+
+import com.TecUnify.backend_user.model.EstadoReserva;
+
+import java.time.LocalDate;
+
+/**
+ * Filtros opcionales (null = sin filtrar) para los listados de reservas.
+ */
+public record ReservaFiltro(EstadoReserva estado, LocalDate desde, LocalDate hasta, Long espacioId) {
+}
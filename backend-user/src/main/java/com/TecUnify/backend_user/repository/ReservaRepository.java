@@ -1,10 +1,93 @@
 package com.TecUnify.backend_user.repository;
 
+import com.TecUnify.backend_user.dto.ReservaDTO;
+import com.TecUnify.backend_user.model.EstadoReserva;
 import com.TecUnify.backend_user.model.Reserva;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
 
-public interface ReservaRepository extends JpaRepository<Reserva, Long> {
+public interface ReservaRepository extends JpaRepository<Reserva, Long>, ReservaRepositoryCustom {
     List<Reserva> findByUsuarioId(Long userId);
+
+    // Proyección de lectura: solo las columnas del DTO, con los nombres de usuario y espacio
+    String PROYECCION_DTO = "SELECT new com.TecUnify.backend_user.dto.ReservaDTO(" +
+            "r.id, u.id, u.email, CONCAT(u.firstName, ' ', u.lastName), e.id, e.nombre, " +
+            "r.fechaReserva, r.horaInicio, r.horaFin, r.motivo, r.estado, r.observaciones, r.precioTotal, r.version) " +
+            "FROM Reserva r JOIN r.usuario u JOIN r.espacio e ";
+
+    @Query(PROYECCION_DTO + "WHERE u.id = :userId ORDER BY r.fechaReserva DESC, r.horaInicio DESC")
+    List<ReservaDTO> findDTOByUsuarioId(@Param("userId") Long userId);
+
+    // [id, espacioId, fecha, horaInicio, horaFin] de las reservas vigentes desde una fecha
+    @Query("SELECT r.id, r.espacio.id, r.fechaReserva, r.horaInicio, r.horaFin FROM Reserva r " +
+           "WHERE r.fechaReserva >= :desde AND r.estado <> :excluido")
+    List<Object[]> findFranjasDesde(@Param("desde") LocalDate desde,
+                                    @Param("excluido") EstadoReserva excluido);
+
+    // [espacioId, fecha, horaInicio, horaFin, cantidad] agrupado por franja: reportes anteriores
+    // a la ventana del rollup de ocupación
+    @Query("SELECT r.espacio.id, r.fechaReserva, r.horaInicio, r.horaFin, COUNT(r) FROM Reserva r " +
+           "WHERE r.fechaReserva BETWEEN :desde AND :hasta AND r.estado <> :excluido " +
+           "GROUP BY r.espacio.id, r.fechaReserva, r.horaInicio, r.horaFin")
+    List<Object[]> contarFranjasEntre(@Param("desde") LocalDate desde,
+                                      @Param("hasta") LocalDate hasta,
+                                      @Param("excluido") EstadoReserva excluido);
+
+    // Lote de [id, espacioId, fecha, horaInicio, horaFin, usuarioId] en un estado cuyo horario ya
+    // terminó, recorrido por id a partir de desdeId (exclusivo). Las filas quedan bloqueadas hasta
+    // el UPDATE del lote: un cambio concurrente por la entidad espera o la saca del lote, y el
+    // outbox no registra transiciones que no ocurrieron
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r.id, r.espacio.id, r.fechaReserva, r.horaInicio, r.horaFin, r.usuario.id FROM Reserva r " +
+           "WHERE r.estado = :estado AND r.id > :desdeId " +
+           "AND (r.fechaReserva < :hoy OR (r.fechaReserva = :hoy AND r.horaFin <= :ahora)) " +
+           "ORDER BY r.id")
+    List<Object[]> findVencidas(@Param("estado") EstadoReserva estado,
+                                @Param("hoy") LocalDate hoy,
+                                @Param("ahora") LocalTime ahora,
+                                @Param("desdeId") Long desdeId,
+                                Pageable lote);
+
+    // Borra solo si la fila sigue en la versión leída (0 si cambió o ya no existe)
+    @Modifying
+    @Query("DELETE FROM Reserva r WHERE r.id = :id AND r.version = :version")
+    int eliminarSiVersion(@Param("id") Long id, @Param("version") Long version);
+
+    // Cambio de estado en bloque; solo toca las filas que siguen en el estado esperado
+    // y sube la versión para que un cambio concurrente por la entidad falle (409)
+    @Modifying
+    @Query("UPDATE Reserva r SET r.estado = :nuevo, r.version = r.version + 1, " +
+           "r.fechaActualizacion = :momento WHERE r.id IN :ids AND r.estado = :actual")
+    int actualizarEstado(@Param("ids") List<Long> ids,
+                         @Param("actual") EstadoReserva actual,
+                         @Param("nuevo") EstadoReserva nuevo,
+                         @Param("momento") LocalDateTime momento);
+
+    @Query("SELECT r.id FROM Reserva r WHERE r.espacio.id = :espacioId " +
+           "AND r.fechaReserva = :fecha " +
+           "AND r.estado <> :excluido " +
+           "AND r.horaInicio < :horaFin " +
+           "AND r.horaFin > :horaInicio")
+    List<Long> findConflictos(@Param("espacioId") Long espacioId,
+                              @Param("fecha") LocalDate fecha,
+                              @Param("horaInicio") LocalTime horaInicio,
+                              @Param("horaFin") LocalTime horaFin,
+                              @Param("excluido") EstadoReserva excluido);
+
+    // [horaInicio, horaFin] de las reservas vigentes de un espacio en una fecha
+    @Query("SELECT r.horaInicio, r.horaFin FROM Reserva r WHERE r.espacio.id = :espacioId " +
+           "AND r.fechaReserva = :fecha AND r.estado <> :excluido")
+    List<Object[]> findHorariosOcupados(@Param("espacioId") Long espacioId,
+                                        @Param("fecha") LocalDate fecha,
+                                        @Param("excluido") EstadoReserva excluido);
 }
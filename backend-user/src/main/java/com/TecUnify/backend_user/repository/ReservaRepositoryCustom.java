@@ -0,0 +1,17 @@
+package com.TecUnify.backend_user.repository;
+
+import com.TecUnify.backend_user.dto.ReservaDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ReservaRepositoryCustom {
+
+    // Página ordenada por (fechaReserva DESC, id DESC) a partir del cursor (exclusivo)
+    List<ReservaDTO> findPagina(ReservaFiltro filtro, LocalDate cursorFecha, Long cursorId, int limite);
+
+    // Todas las filas filtradas, en el mismo orden, leídas de a fetchSize desde un cursor
+    // de solo avance. Requiere una transacción abierta y cerrar el Stream.
+    Stream<ReservaDTO> streamFiltradas(ReservaFiltro filtro, int fetchSize);
+}
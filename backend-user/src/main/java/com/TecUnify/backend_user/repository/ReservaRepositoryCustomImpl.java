@@ -0,0 +1,74 @@
+package com.TecUnify.backend_user.repository;
+
+import com.TecUnify.backend_user.dto.ReservaDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Paginación por cursor (keyset): en lugar de OFFSET se filtra por la última
+ * clave (fechaReserva, id) vista, de modo que cada página recorre solo su
+ * tramo de idx_reservas_fecha_id (o idx_reservas_estado_fecha_id si se filtra
+ * por estado) sin ordenar el resto de la tabla. Solo se agregan al WHERE los
+ * filtros presentes.
+ * La exportación usa los mismos filtros sobre un cursor de solo avance.
+ */
+public class ReservaRepositoryCustomImpl implements ReservaRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ReservaDTO> findPagina(ReservaFiltro filtro, LocalDate cursorFecha, Long cursorId, int limite) {
+        TypedQuery<ReservaDTO> query = consulta(filtro, cursorFecha, cursorId);
+        query.setMaxResults(limite);
+        return query.getResultList();
+    }
+
+    @Override
+    public Stream<ReservaDTO> streamFiltradas(ReservaFiltro filtro, int fetchSize) {
+        TypedQuery<ReservaDTO> query = consulta(filtro, null, null);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+        return query.getResultStream();
+    }
+
+    private TypedQuery<ReservaDTO> consulta(ReservaFiltro filtro, LocalDate cursorFecha, Long cursorId) {
+        StringBuilder jpql = new StringBuilder(ReservaRepository.PROYECCION_DTO).append("WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+
+        if (filtro.estado() != null) {
+            jpql.append(" AND r.estado = :estado");
+            params.put("estado", filtro.estado());
+        }
+        if (filtro.espacioId() != null) {
+            jpql.append(" AND r.espacio.id = :espacioId");
+            params.put("espacioId", filtro.espacioId());
+        }
+        if (filtro.desde() != null) {
+            jpql.append(" AND r.fechaReserva >= :desde");
+            params.put("desde", filtro.desde());
+        }
+        if (filtro.hasta() != null) {
+            jpql.append(" AND r.fechaReserva <= :hasta");
+            params.put("hasta", filtro.hasta());
+        }
+        if (cursorFecha != null && cursorId != null) {
+            jpql.append(" AND (r.fechaReserva < :cursorFecha OR (r.fechaReserva = :cursorFecha AND r.id < :cursorId))");
+            params.put("cursorFecha", cursorFecha);
+            params.put("cursorId", cursorId);
+        }
+        jpql.append(" ORDER BY r.fechaReserva DESC, r.id DESC");
+
+        TypedQuery<ReservaDTO> query = entityManager.createQuery(jpql.toString(), ReservaDTO.class);
+        params.forEach(query::setParameter);
+        return query;
+    }
+}
@@ -1,11 +1,24 @@
 package com.TecUnify.backend_user.repository;
 
+import com.TecUnify.backend_user.dto.TipoEspacioDTO;
 import com.TecUnify.backend_user.model.TipoEspacio;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TipoEspacioRepository extends JpaRepository<TipoEspacio, Long> {
     List<TipoEspacio> findByActivoTrue();
+
+    String PROYECCION_DTO = "SELECT new com.TecUnify.backend_user.dto.TipoEspacioDTO(" +
+            "t.id, t.nombre, t.descripcion, t.icono, t.activo) FROM TipoEspacio t ";
+
+    @Query(PROYECCION_DTO + "WHERE t.activo = true ORDER BY t.id")
+    List<TipoEspacioDTO> findDTOByActivoTrue();
+
+    @Query(PROYECCION_DTO + "WHERE t.id = :id")
+    Optional<TipoEspacioDTO> findDTOById(@Param("id") Long id);
 }
@@ -1,8 +1,11 @@
 package com.TecUnify.backend_user.repository;
 
+import com.TecUnify.backend_user.dto.UserDTO;
 import com.TecUnify.backend_user.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +15,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByEmail(String email);
     Boolean existsByGoogleId(String googleId);
     // removed: existsByCarnetEstudiantil - field not present in User entity
+
+    @Query("SELECT new com.TecUnify.backend_user.dto.UserDTO(u.id, u.email, u.firstName, u.lastName, u.phone, u.role) " +
+           "FROM User u ORDER BY u.id")
+    List<UserDTO> findAllDTO();
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.TecUnify.backend_user.service;
+
+import com.TecUnify.backend_user.dto.EspacioLibreDTO;
+import com.TecUnify.backend_user.dto.FranjaHorariaDTO;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * "¿Qué espacio está libre el jueves de 10:00 a 12:00?" en una sola pasada:
+ * los candidatos salen del índice de búsqueda (tipo, capacidad, equipamiento),
+ * sus horarios de apertura se compilan juntos con una consulta por lote y la
+ * ocupación se lee del índice de disponibilidad, sin consultas por espacio.
+ */
+@Service
+@RequiredArgsConstructor
+public class BuscadorEspaciosLibres {
+
+    private final BusquedaEspacios busquedaEspacios;
+    private final HorarioSlotEngine horarioSlotEngine;
+
+    private record Candidato(BusquedaEspacios.Documento espacio, FranjaHorariaDTO ventana, long holguraMinutos) {
+    }
+
+    /**
+     * Espacios libres en todo el horario pedido, ordenados por mejor ajuste:
+     * primero la capacidad más cercana a la pedida (no ocupar un auditorio para
+     * 10 personas), luego la mayor holgura libre alrededor del horario.
+     */
+    @Timed(value = "espacios.libres", description = "Búsqueda de espacios libres en un horario")
+    public List<EspacioLibreDTO> buscar(LocalDate fecha, LocalTime horaInicio, LocalTime horaFin,
+                                        Long tipoEspacioId, Integer capacidadMin, String equipamiento,
+                                        int limite) {
+        if (fecha == null || horaInicio == null || horaFin == null || !horaFin.isAfter(horaInicio)) {
+            throw new IllegalArgumentException("Horario inválido");
+        }
+        if (fecha.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("No se puede buscar en fechas pasadas");
+        }
+
+        List<BusquedaEspacios.Documento> espacios = busquedaEspacios.filtrar(tipoEspacioId, capacidadMin, equipamiento);
+        horarioSlotEngine.precargar(espacios.stream().map(BusquedaEspacios.Documento::id).toList());
+
+        List<Candidato> libres = new ArrayList<>();
+        for (BusquedaEspacios.Documento e : espacios) {
+            BitSet slots = horarioSlotEngine.libres(e.id(), fecha);
+            FranjaHorariaDTO ventana = horarioSlotEngine.ventanaQueContiene(slots, horaInicio, horaFin);
+            if (ventana != null) {
+                long holgura = Duration.between(ventana.getHoraInicio(), ventana.getHoraFin()).toMinutes()
+                        - Duration.between(horaInicio, horaFin).toMinutes();
+                libres.add(new Candidato(e, ventana, holgura));
+            }
+        }
+
+        int base = capacidadMin != null ? capacidadMin : 0;
+        libres.sort(Comparator.comparingInt((Candidato c) -> capacidad(c) - base)
+                .thenComparing(Comparator.comparingLong(Candidato::holguraMinutos).reversed())
+                .thenComparing(c -> c.espacio().nombre(), String.CASE_INSENSITIVE_ORDER));
+
+        return libres.stream().limit(limite).map(c -> EspacioLibreDTO.builder()
+                .espacioId(c.espacio().id())
+                .nombre(c.espacio().nombre())
+                .ubicacion(c.espacio().ubicacion())
+                .capacidad(c.espacio().capacidad())
+                .tipoEspacioId(c.espacio().tipoId())
+                .tipoEspacioNombre(c.espacio().tipoNombre())
+                .imagenUrl(c.espacio().imagenUrl())
+                .libreDesde(c.ventana().getHoraInicio())
+                .libreHasta(c.ventana().getHoraFin())
+                .build()).toList();
+    }
+
+    private static int capacidad(Candidato c) {
+        return c.espacio().capacidad() != null ? c.espacio().capacidad() : 0;
+    }
+}
@@ -0,0 +1,355 @@
+package com.TecUnify.backend_user.service;
+
+import com.TecUnify.backend_user.dto.BusquedaEspaciosDTO;
+import com.TecUnify.backend_user.dto.EspacioDTO;
+import com.TecUnify.backend_user.dto.FacetaDTO;
+import com.TecUnify.backend_user.repository.EspacioRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria sobre nombre, descripción, ubicación y
+ * equipamiento de los espacios activos. Cada término apunta a los espacios
+ * que lo contienen, con un peso según el campo (el nombre pesa más que la
+ * descripción). Los términos están ordenados, así que "proyec" encuentra
+ * "proyector" recorriendo un rango del mapa. Las escrituras de EspacioService
+ * reindexan solo el espacio afectado; una recarga periódica recoge los
+ * cambios hechos desde backend-admin.
+ */
+@Component
+@RequiredArgsConstructor
+public class BusquedaEspacios {
+    private static final Logger logger = LoggerFactory.getLogger(BusquedaEspacios.class);
+
+    // Faceta de capacidad: rangos inclusive, el último abierto
+    private static final List<String> RANGOS = List.of("1-10", "11-30", "31-60", "61-100", "101+");
+    private static final int[] RANGO_MAX = {10, 30, 60, 100, Integer.MAX_VALUE};
+
+    private static final float PESO_NOMBRE = 4f;
+    private static final float PESO_EQUIPAMIENTO = 3f;
+    private static final float PESO_UBICACION = 2f;
+    private static final float PESO_DESCRIPCION = 1f;
+    // Un término que solo empieza con lo buscado cuenta la mitad que uno exacto
+    private static final float FACTOR_PREFIJO = 0.5f;
+
+    private static final Set<String> VACIAS = Set.of("a", "al", "con", "de", "del", "e", "el", "en", "la", "las",
+            "los", "o", "para", "por", "u", "un", "una", "y");
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final EspacioRepository espacioRepository;
+
+    private final ConcurrentHashMap<Long, Documento> documentos = new ConcurrentHashMap<>();
+
+    // término -> espacios que lo contienen
+    private final ConcurrentSkipListMap<String, Postings> terminos = new ConcurrentSkipListMap<>();
+
+    // Las escrituras se serializan; las búsquedas no bloquean
+    private final Object escritura = new Object();
+
+    private volatile boolean listo;
+
+    // Espacio indexado: los campos que devuelve la búsqueda, el peso de cada término
+    // y los términos de su equipamiento (para filtrar por equipo)
+    record Documento(Long id, String nombre, String descripcion, String ubicacion, String equipamiento,
+                     Integer capacidad, String imagenUrl, Long tipoId, String tipoNombre,
+                     Map<String, Float> pesos, List<String> equipos) {
+
+        // Cada término pedido debe coincidir (o ser prefijo de) algún término del equipamiento
+        boolean tieneEquipos(List<String> pedidos) {
+            for (String pedido : pedidos) {
+                boolean encontrado = false;
+                for (String equipo : equipos) {
+                    if (equipo.startsWith(pedido)) {
+                        encontrado = true;
+                        break;
+                    }
+                }
+                if (!encontrado) return false;
+            }
+            return true;
+        }
+
+        EspacioDTO toDTO() {
+            return EspacioDTO.builder()
+                    .id(id)
+                    .nombre(nombre)
+                    .descripcion(descripcion)
+                    .capacidad(capacidad)
+                    .activo(true)
+                    .imagenUrl(imagenUrl)
+                    .build();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.busqueda.recarga-ms:300000}", fixedDelayString = "${app.busqueda.recarga-ms:300000}")
+    public void cargar() {
+        try {
+            List<Object[]> filas = espacioRepository.findParaBusqueda();
+            synchronized (escritura) {
+                Set<Long> vigentes = new HashSet<>();
+                for (Object[] f : filas) {
+                    Documento d = documento(f);
+                    vigentes.add(d.id());
+                    indexar(d);
+                }
+                for (Long id : new ArrayList<>(documentos.keySet())) {
+                    if (!vigentes.contains(id)) quitar(id);
+                }
+            }
+            if (!listo) {
+                logger.info("Índice de búsqueda de espacios cargado: {} espacios, {} términos",
+                        documentos.size(), terminos.size());
+            }
+            listo = true;
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo cargar el índice de búsqueda de espacios ({})", e.getMessage());
+        }
+    }
+
+    // Reindexa un espacio después de crearlo, editarlo o desactivarlo
+    public void actualizar(Long espacioId) {
+        if (espacioId == null) return;
+        try {
+            List<Object[]> filas = espacioRepository.findParaBusquedaPorId(espacioId);
+            synchronized (escritura) {
+                if (filas.isEmpty()) {
+                    quitar(espacioId);
+                } else {
+                    indexar(documento(filas.get(0)));
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo reindexar el espacio {} ({}); se corrige en la próxima recarga",
+                    espacioId, e.getMessage());
+        }
+    }
+
+    /**
+     * Espacios que contienen todos los términos de q (vacío = todos), filtrados
+     * por tipo y rango de capacidad. Cada faceta se cuenta con los demás
+     * filtros aplicados pero no con el suyo, para poder cambiar de opción.
+     */
+    public BusquedaEspaciosDTO buscar(String q, Long tipoEspacioId, String capacidad, int limite) {
+        int rangoFiltro = -1;
+        if (capacidad != null && !capacidad.isBlank()) {
+            rangoFiltro = RANGOS.indexOf(capacidad.trim());
+            if (rangoFiltro < 0) {
+                throw new IllegalArgumentException("Rango de capacidad inválido: use " + String.join(", ", RANGOS));
+            }
+        }
+        if (!listo) cargar();
+
+        Map<Long, Float> puntajes = coincidencias(tokens(q));
+        Map<Long, FacetaDTO> porTipo = new HashMap<>();
+        int[] porRango = new int[RANGOS.size()];
+        List<Documento> resultado = new ArrayList<>();
+        for (Long id : puntajes.keySet()) {
+            Documento d = documentos.get(id);
+            if (d == null) continue;
+            int rango = rango(d.capacidad());
+            boolean pasaTipo = tipoEspacioId == null || tipoEspacioId.equals(d.tipoId());
+            boolean pasaRango = rangoFiltro < 0 || rangoFiltro == rango;
+            if (pasaRango && d.tipoId() != null) {
+                FacetaDTO faceta = porTipo.computeIfAbsent(d.tipoId(), t -> FacetaDTO.builder()
+                        .valor(String.valueOf(t)).nombre(d.tipoNombre()).cantidad(0).build());
+                faceta.setCantidad(faceta.getCantidad() + 1);
+            }
+            if (pasaTipo && rango >= 0) porRango[rango]++;
+            if (pasaTipo && pasaRango) resultado.add(d);
+        }
+
+        resultado.sort(Comparator.comparingDouble((Documento d) -> -puntajes.get(d.id()))
+                .thenComparing(Documento::nombre, String.CASE_INSENSITIVE_ORDER));
+        List<FacetaDTO> tipos = new ArrayList<>(porTipo.values());
+        tipos.sort(Comparator.comparing(FacetaDTO::getCantidad).reversed());
+        List<FacetaDTO> capacidades = new ArrayList<>(RANGOS.size());
+        for (int i = 0; i < RANGOS.size(); i++) {
+            capacidades.add(FacetaDTO.builder().valor(RANGOS.get(i)).nombre(RANGOS.get(i)).cantidad(porRango[i]).build());
+        }
+        return BusquedaEspaciosDTO.builder()
+                .total(resultado.size())
+                .items(resultado.stream().limit(limite).map(Documento::toDTO).toList())
+                .tipos(tipos)
+                .capacidades(capacidades)
+                .build();
+    }
+
+    // Espacios activos del tipo indicado, con al menos esa capacidad y todo el equipamiento pedido
+    List<Documento> filtrar(Long tipoEspacioId, Integer capacidadMin, String equipamiento) {
+        if (!listo) cargar();
+        List<String> pedidos = tokens(equipamiento);
+        List<Documento> candidatos = new ArrayList<>();
+        for (Documento d : documentos.values()) {
+            if (tipoEspacioId != null && !tipoEspacioId.equals(d.tipoId())) continue;
+            if (capacidadMin != null && (d.capacidad() == null || d.capacidad() < capacidadMin)) continue;
+            if (!pedidos.isEmpty() && !d.tieneEquipos(pedidos)) continue;
+            candidatos.add(d);
+        }
+        return candidatos;
+    }
+
+    // espacioId -> puntaje de los espacios que contienen todos los términos
+    private Map<Long, Float> coincidencias(List<String> tokens) {
+        if (tokens.isEmpty()) {
+            Map<Long, Float> todos = new HashMap<>();
+            documentos.keySet().forEach(id -> todos.put(id, 0f));
+            return todos;
+        }
+        Map<Long, Float> acumulado = null;
+        for (String token : tokens) {
+            Map<Long, Float> delToken = new HashMap<>();
+            for (Map.Entry<String, Postings> t
+                    : terminos.subMap(token, true, token + Character.MAX_VALUE, true).entrySet()) {
+                float factor = t.getKey().equals(token) ? 1f : FACTOR_PREFIJO;
+                Postings p = t.getValue();
+                for (int i = 0; i < p.ids.length; i++) {
+                    delToken.merge(p.ids[i], p.pesos[i] * factor, Math::max);
+                }
+            }
+            if (acumulado == null) {
+                acumulado = delToken;
+            } else {
+                acumulado.keySet().retainAll(delToken.keySet());
+                acumulado.replaceAll((id, puntaje) -> puntaje + delToken.get(id));
+            }
+            if (acumulado.isEmpty()) break;
+        }
+        return acumulado;
+    }
+
+    private static int rango(Integer capacidad) {
+        if (capacidad == null || capacidad < 1) return -1;
+        for (int i = 0; i < RANGO_MAX.length; i++) {
+            if (capacidad <= RANGO_MAX[i]) return i;
+        }
+        return -1;
+    }
+
+    private void indexar(Documento d) {
+        Documento anterior = documentos.put(d.id(), d);
+        if (d.equals(anterior)) return;
+        if (anterior != null) {
+            for (String t : anterior.pesos().keySet()) {
+                if (!d.pesos().containsKey(t)) terminos.computeIfPresent(t, (k, p) -> p.sin(d.id()));
+            }
+        }
+        for (Map.Entry<String, Float> e : d.pesos().entrySet()) {
+            terminos.compute(e.getKey(), (k, p) -> (p == null ? Postings.VACIA : p).con(d.id(), e.getValue()));
+        }
+    }
+
+    private void quitar(Long id) {
+        Documento anterior = documentos.remove(id);
+        if (anterior == null) return;
+        for (String t : anterior.pesos().keySet()) {
+            terminos.computeIfPresent(t, (k, p) -> p.sin(id));
+        }
+    }
+
+    private static Documento documento(Object[] f) {
+        String nombre = (String) f[1];
+        String descripcion = (String) f[2];
+        String ubicacion = (String) f[3];
+        String equipamiento = (String) f[4];
+        Map<String, Float> pesos = new HashMap<>();
+        pesar(pesos, nombre, PESO_NOMBRE);
+        pesar(pesos, equipamiento, PESO_EQUIPAMIENTO);
+        pesar(pesos, ubicacion, PESO_UBICACION);
+        pesar(pesos, descripcion, PESO_DESCRIPCION);
+        return new Documento((Long) f[0], nombre, descripcion, ubicacion, equipamiento, (Integer) f[5],
+                (String) f[6], (Long) f[7], (String) f[8], Map.copyOf(pesos), tokens(equipamiento));
+    }
+
+    private static void pesar(Map<String, Float> pesos, String texto, float peso) {
+        for (String t : tokens(texto)) pesos.merge(t, peso, Math::max);
+    }
+
+    // Minúsculas, sin tildes, sin palabras vacías y en singular; sin repetidos
+    static List<String> tokens(String texto) {
+        if (texto == null || texto.isBlank()) return List.of();
+        String plano = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String t : SEPARADORES.split(plano)) {
+            if (t.isEmpty() || VACIAS.contains(t)) continue;
+            String raiz = singular(t);
+            if (!tokens.contains(raiz)) tokens.add(raiz);
+        }
+        return tokens;
+    }
+
+    // Plural simple: "proyectores" -> "proyector", "salones" -> "salon", "pcs" -> "pc", "mesas" -> "mesa"
+    static String singular(String t) {
+        int n = t.length();
+        if (n > 4 && t.endsWith("es") && "rlnd".indexOf(t.charAt(n - 3)) >= 0) {
+            return t.substring(0, n - 2);
+        }
+        if (n > 2 && t.charAt(n - 1) == 's' && Character.isLetter(t.charAt(n - 2)) && t.charAt(n - 2) != 's') {
+            return t.substring(0, n - 1);
+        }
+        return t;
+    }
+
+    /**
+     * Lista inmutable de (espacioId, peso) de un término, ordenada por id.
+     * Se reemplaza completa en cada cambio, así una búsqueda en curso nunca
+     * ve un arreglo a medio actualizar.
+     */
+    static final class Postings {
+        static final Postings VACIA = new Postings(new long[0], new float[0]);
+
+        final long[] ids;
+        final float[] pesos;
+
+        Postings(long[] ids, float[] pesos) {
+            this.ids = ids;
+            this.pesos = pesos;
+        }
+
+        Postings con(long id, float peso) {
+            int pos = Arrays.binarySearch(ids, id);
+            if (pos >= 0) {
+                float[] nPesos = pesos.clone();
+                nPesos[pos] = peso;
+                return new Postings(ids, nPesos);
+            }
+            pos = -pos - 1;
+            long[] nIds = new long[ids.length + 1];
+            float[] nPesos = new float[ids.length + 1];
+            System.arraycopy(ids, 0, nIds, 0, pos);
+            System.arraycopy(pesos, 0, nPesos, 0, pos);
+            nIds[pos] = id;
+            nPesos[pos] = peso;
+            System.arraycopy(ids, pos, nIds, pos + 1, ids.length - pos);
+            System.arraycopy(pesos, pos, nPesos, pos + 1, ids.length - pos);
+            return new Postings(nIds, nPesos);
+        }
+
+        // null cuando queda vacía (el término sale del mapa)
+        Postings sin(long id) {
+            int pos = Arrays.binarySearch(ids, id);
+            if (pos < 0) return this;
+            if (ids.length == 1) return null;
+            long[] nIds = new long[ids.length - 1];
+            float[] nPesos = new float[ids.length - 1];
+            System.arraycopy(ids, 0, nIds, 0, pos);
+            System.arraycopy(pesos, 0, nPesos, 0, pos);
+            System.arraycopy(ids, pos + 1, nIds, pos, ids.length - pos - 1);
+            System.arraycopy(pesos, pos + 1, nPesos, pos, ids.length - pos - 1);
+            return new Postings(nIds, nPesos);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.TecUnify.backend_user.service;
+
+import com.TecUnify.backend_user.repository.EspacioRepository;
+import com.TecUnify.backend_user.repository.MotivoReservaRepository;
+import com.TecUnify.backend_user.repository.TipoEspacioRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Parte compartida de GET /api/bootstrap: espacios, tipos de espacio y
+ * motivos activos, ya serializada a JSON y comprimida. Se reconstruye solo
+ * cuando el contenido cambia (escrituras de EspacioService, y una revisión
+ * periódica para lo que se edita desde backend-admin); la versión es un hash
+ * del JSON y sirve de ETag.
+ * <p>
+ * El catálogo se guarda como deflate crudo terminado en SYNC_FLUSH (bloques
+ * no finales, alineado a byte). Así una respuesta gzip se arma empalmando
+ * prefijo comprimido + catálogo precomprimido + datos del usuario
+ * comprimidos, sin volver a comprimir el catálogo por request.
+ */
+@Component
+public class CatalogoBootstrap {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogoBootstrap.class);
+
+    private static final byte[] CABECERA_GZIP = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    // Bloque deflate final vacío: cierra un flujo terminado en SYNC_FLUSH
+    private static final byte[] BLOQUE_FINAL = {0x03, 0x00};
+
+    /**
+     * Catálogo listo para enviar (arrays de solo lectura): JSON plano, deflate
+     * para empalmar y gzip completo para GET /api/bootstrap/catalogo.
+     */
+    public record Catalogo(String version, byte[] json, byte[] deflate, byte[] gzip) {
+    }
+
+    private final EspacioRepository espacioRepository;
+    private final TipoEspacioRepository tipoEspacioRepository;
+    private final MotivoReservaRepository motivoReservaRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile Catalogo actual;
+
+    public CatalogoBootstrap(EspacioRepository espacioRepository,
+                             TipoEspacioRepository tipoEspacioRepository,
+                             MotivoReservaRepository motivoReservaRepository,
+                             ObjectMapper objectMapper) {
+        this.espacioRepository = espacioRepository;
+        this.tipoEspacioRepository = tipoEspacioRepository;
+        this.motivoReservaRepository = motivoReservaRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public Catalogo actual() {
+        Catalogo c = actual;
+        if (c == null) {
+            reconstruir();
+            c = actual;
+        }
+        return c;
+    }
+
+    // Lee el catálogo de la BD (no de la caché, que puede ir por detrás de una escritura)
+    // y solo recomprime si el JSON cambió
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.bootstrap.revision-ms:300000}", fixedDelayString = "${app.bootstrap.revision-ms:300000}")
+    public synchronized void reconstruir() {
+        try {
+            Map<String, Object> catalogo = new LinkedHashMap<>();
+            catalogo.put("espacios", espacioRepository.findDTOByActivoTrue());
+            catalogo.put("tiposEspacios", tipoEspacioRepository.findDTOByActivoTrue());
+            catalogo.put("motivosReserva", motivoReservaRepository.findDTOByActivoTrue());
+            byte[] json = objectMapper.writeValueAsBytes(catalogo);
+
+            Catalogo previo = actual;
+            if (previo != null && Arrays.equals(previo.json(), json)) return;
+
+            byte[] deflate = deflate(json, false);
+            actual = new Catalogo(version(json), json, deflate, gzipCompleto(json, deflate));
+            logger.info("Catálogo de bootstrap {} ({} bytes JSON, {} gzip)",
+                    actual.version(), json.length, actual.gzip().length);
+        } catch (JsonProcessingException | RuntimeException e) {
+            logger.warn("No se pudo reconstruir el catálogo de bootstrap ({})", e.getMessage());
+        }
+    }
+
+    /**
+     * Cuerpo de GET /api/bootstrap: {"catalogoVersion", "catalogo", "usuario", "reservas"}.
+     * Con versionCliente igual a la actual, "catalogo" va null (el cliente ya lo tiene).
+     */
+    public byte[] respuesta(Catalogo catalogo, String versionCliente, Object usuario, Object reservas,
+                            boolean comprimir) throws JsonProcessingException {
+        boolean incluir = !catalogo.version().equals(versionCliente);
+        byte[] prefijo = ("{\"catalogoVersion\":\"" + catalogo.version() + "\",\"catalogo\":"
+                + (incluir ? "" : "null")).getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream resto = new ByteArrayOutputStream(1024);
+        resto.writeBytes(",\"usuario\":".getBytes(StandardCharsets.UTF_8));
+        resto.writeBytes(objectMapper.writeValueAsBytes(usuario));
+        resto.writeBytes(",\"reservas\":".getBytes(StandardCharsets.UTF_8));
+        resto.writeBytes(objectMapper.writeValueAsBytes(reservas));
+        resto.write('}');
+        byte[] sufijo = resto.toByteArray();
+
+        Catalogo incluido = incluir ? catalogo : null;
+        if (comprimir) return gzip(prefijo, incluido, sufijo);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(
+                prefijo.length + sufijo.length + (incluir ? catalogo.json().length : 0));
+        out.writeBytes(prefijo);
+        if (incluir) out.writeBytes(catalogo.json());
+        out.writeBytes(sufijo);
+        return out.toByteArray();
+    }
+
+    // Respuesta gzip: prefijo + catálogo (si no es null) + sufijo; solo prefijo y sufijo se comprimen aquí
+    static byte[] gzip(byte[] prefijo, Catalogo catalogo, byte[] sufijo) {
+        CRC32 crc = new CRC32();
+        crc.update(prefijo);
+        long largo = prefijo.length + sufijo.length;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(
+                (catalogo != null ? catalogo.deflate().length : 0) + 256 + sufijo.length / 2);
+        out.writeBytes(CABECERA_GZIP);
+        out.writeBytes(deflate(prefijo, false));
+        if (catalogo != null) {
+            out.writeBytes(catalogo.deflate());
+            crc.update(catalogo.json());
+            largo += catalogo.json().length;
+        }
+        out.writeBytes(deflate(sufijo, true));
+        crc.update(sufijo);
+        escribirLe32(out, crc.getValue());
+        escribirLe32(out, largo);
+        return out.toByteArray();
+    }
+
+    private static byte[] gzipCompleto(byte[] json, byte[] deflate) {
+        CRC32 crc = new CRC32();
+        crc.update(json);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(deflate.length + 20);
+        out.writeBytes(CABECERA_GZIP);
+        out.writeBytes(deflate);
+        out.writeBytes(BLOQUE_FINAL);
+        escribirLe32(out, crc.getValue());
+        escribirLe32(out, json.length);
+        return out.toByteArray();
+    }
+
+    // Deflate crudo (sin cabecera zlib); final=false termina en SYNC_FLUSH para poder seguir empalmando
+    private static byte[] deflate(byte[] datos, boolean fin) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(datos);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, datos.length / 4));
+            byte[] buffer = new byte[8192];
+            if (fin) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    out.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } else {
+                int n;
+                do {
+                    n = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    out.write(buffer, 0, n);
+                } while (n == buffer.length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void escribirLe32(ByteArrayOutputStream out, long valor) {
+        out.write((int) valor);
+        out.write((int) (valor >>> 8));
+        out.write((int) (valor >>> 16));
+        out.write((int) (valor >>> 24));
+    }
+
+    private static String version(byte[] json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
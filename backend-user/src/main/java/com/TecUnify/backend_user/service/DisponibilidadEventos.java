@@ -0,0 +1,229 @@
+package com.TecUnify.backend_user.service;
+
+import com.TecUnify.backend_user.dto.HorariosDisponiblesDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Suscripciones SSE a la disponibilidad de un espacio en una fecha.
+ *
+ * Los cambios se acumulan por (espacio, fecha) y cada intervalo se envía un
+ * solo evento con las ventanas libres actuales a todos sus suscriptores.
+ * Cada suscriptor tiene un buffer acotado: si el cliente es lento se
+ * descarta el evento más viejo (el siguiente trae el estado completo).
+ * Los envíos se hacen en hilos virtuales para que un cliente lento no
+ * bloquee al resto.
+ */
+@Component
+public class DisponibilidadEventos implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(DisponibilidadEventos.class);
+
+    private final HorarioSlotEngine horarioSlotEngine;
+    private final long timeoutMs;
+    private final int capacidadBuffer;
+    private final int maxSuscriptores;
+
+    private final ConcurrentHashMap<Clave, Set<Suscriptor>> suscriptores = new ConcurrentHashMap<>();
+    private final Set<Clave> pendientes = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicLong secuencia = new AtomicLong();
+    private final ExecutorService envios = Executors.newVirtualThreadPerTaskExecutor();
+    private Counter descartados;
+
+    record Clave(Long espacioId, LocalDate fecha) {
+    }
+
+    // nombre null = comentario de latido
+    record Evento(long id, String nombre, Object datos) {
+    }
+
+    public DisponibilidadEventos(HorarioSlotEngine horarioSlotEngine,
+                                 @Value("${app.sse.timeout-ms:1800000}") long timeoutMs,
+                                 @Value("${app.sse.buffer-eventos:16}") int capacidadBuffer,
+                                 @Value("${app.sse.max-suscriptores:5000}") int maxSuscriptores) {
+        this.horarioSlotEngine = horarioSlotEngine;
+        this.timeoutMs = timeoutMs;
+        this.capacidadBuffer = capacidadBuffer;
+        this.maxSuscriptores = maxSuscriptores;
+    }
+
+    // null si se alcanzó el máximo de suscriptores
+    public SseEmitter suscribir(Long espacioId, LocalDate fecha) {
+        if (total.incrementAndGet() > maxSuscriptores) {
+            total.decrementAndGet();
+            return null;
+        }
+        Clave clave = new Clave(espacioId, fecha);
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Suscriptor s = new Suscriptor(clave, emitter);
+        emitter.onCompletion(() -> quitar(s));
+        emitter.onTimeout(() -> quitar(s));
+        emitter.onError(e -> quitar(s));
+        // Se agrega dentro de compute: quitar() puede estar sacando del mapa el conjunto vacío
+        suscriptores.compute(clave, (k, subs) -> {
+            if (subs == null) subs = ConcurrentHashMap.newKeySet();
+            subs.add(s);
+            return subs;
+        });
+
+        // Estado inicial, para no tener que consultar aparte
+        try {
+            s.encolar(evento(clave));
+        } catch (RuntimeException e) {
+            quitar(s);
+            throw e;
+        }
+        return emitter;
+    }
+
+    @EventListener
+    public void reservaCambiada(ReservaCambiadaEvent e) {
+        Clave clave = new Clave(e.espacioId(), e.fecha());
+        if (suscriptores.containsKey(clave)) {
+            pendientes.add(clave);
+        }
+    }
+
+    // Un evento por (espacio, fecha) modificado desde el último envío
+    @Scheduled(fixedDelayString = "${app.sse.intervalo-ms:250}")
+    public void despachar() {
+        for (Iterator<Clave> it = pendientes.iterator(); it.hasNext(); ) {
+            Clave clave = it.next();
+            it.remove();
+            Set<Suscriptor> subs = suscriptores.get(clave);
+            if (subs == null || subs.isEmpty()) continue;
+            try {
+                Evento evento = evento(clave);
+                subs.forEach(s -> s.encolar(evento));
+            } catch (RuntimeException ex) {
+                logger.warn("No se pudo calcular la disponibilidad de {}: {}", clave, ex.getMessage());
+            }
+        }
+    }
+
+    // Mantiene viva la conexión a través de proxies y detecta clientes desconectados
+    @Scheduled(fixedDelayString = "${app.sse.latido-ms:20000}")
+    public void latido() {
+        Evento latido = new Evento(0, null, null);
+        suscriptores.values().forEach(subs -> subs.forEach(s -> s.encolar(latido)));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("sse.suscriptores", total, AtomicInteger::get)
+                .description("Suscripciones SSE de disponibilidad abiertas")
+                .register(registry);
+        descartados = Counter.builder("sse.eventos.descartados")
+                .description("Eventos descartados por buffer lleno (cliente lento)")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        suscriptores.values().forEach(subs -> subs.forEach(s -> s.emitter.complete()));
+        envios.shutdown();
+    }
+
+    private Evento evento(Clave clave) {
+        HorariosDisponiblesDTO dto = horarioSlotEngine.horariosDisponibles(clave.espacioId(), clave.fecha());
+        return new Evento(secuencia.incrementAndGet(), "disponibilidad", dto);
+    }
+
+    private void quitar(Suscriptor s) {
+        if (!s.cerrado.compareAndSet(false, true)) return;
+        total.decrementAndGet();
+        suscriptores.computeIfPresent(s.clave, (k, subs) -> {
+            subs.remove(s);
+            return subs.isEmpty() ? null : subs;
+        });
+    }
+
+    private final class Suscriptor {
+        final Clave clave;
+        final SseEmitter emitter;
+        final ArrayDeque<Evento> buffer = new ArrayDeque<>(); // protegido por this
+        final AtomicBoolean enviando = new AtomicBoolean();
+        final AtomicBoolean cerrado = new AtomicBoolean();
+
+        Suscriptor(Clave clave, SseEmitter emitter) {
+            this.clave = clave;
+            this.emitter = emitter;
+        }
+
+        void encolar(Evento e) {
+            if (cerrado.get()) return;
+            synchronized (this) {
+                if (buffer.size() >= capacidadBuffer) {
+                    buffer.pollFirst();
+                    if (descartados != null) descartados.increment();
+                }
+                buffer.addLast(e);
+            }
+            if (enviando.compareAndSet(false, true)) {
+                envios.execute(this::vaciar);
+            }
+        }
+
+        // Un solo hilo vacía el buffer a la vez; se revisa al final por si llegó algo
+        void vaciar() {
+            do {
+                Evento e;
+                while ((e = siguiente()) != null) {
+                    if (!enviar(e)) return;
+                }
+                enviando.set(false);
+            } while (!vacio() && enviando.compareAndSet(false, true));
+        }
+
+        private synchronized Evento siguiente() {
+            return buffer.pollFirst();
+        }
+
+        private synchronized boolean vacio() {
+            return buffer.isEmpty();
+        }
+
+        private boolean enviar(Evento e) {
+            if (cerrado.get()) return false;
+            try {
+                if (e.nombre() == null) {
+                    emitter.send(SseEmitter.event().comment("latido"));
+                } else {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(e.id()))
+                            .name(e.nombre())
+                            .data(e.datos(), MediaType.APPLICATION_JSON));
+                }
+                return true;
+            } catch (IOException | IllegalStateException ex) {
+                // Cliente desconectado
+                quitar(this);
+                emitter.completeWithError(ex);
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.TecUnify.backend_user.service;
+
+import com.TecUnify.backend_user.model.EstadoReserva;
+import com.TecUnify.backend_user.model.Reserva;
+import com.TecUnify.backend_user.repository.ReservaRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice en memoria de las franjas ocupadas por reservas no canceladas,
+ * agrupadas por espacio y fecha. Permite verificar solapamientos sin
+ * consultar la tabla reservas.
+ * <p>
+ * backend-admin edita y borra reservas directamente en la BD, así que el
+ * índice se reconstruye periódicamente (mapas nuevos, intercambiados de una
+ * vez); los cambios de esta instancia hechos mientras tanto se reaplican sobre
+ * los mapas nuevos. Entre reconstrucciones, un "ocupado" se confirma con la BD.
+ */
+@Component
+@RequiredArgsConstructor
+public class DisponibilidadIndex {
+    private static final Logger logger = LoggerFactory.getLogger(DisponibilidadIndex.class);
+
+    private final ReservaRepository reservaRepository;
+    private final ApplicationEventPublisher eventos;
+
+    private volatile ConcurrentHashMap<Clave, Franjas> franjas = new ConcurrentHashMap<>();
+
+    // reservaId -> clave en la que está indexada (para poder moverla o quitarla)
+    private volatile ConcurrentHashMap<Long, Clave> ubicaciones = new ConcurrentHashMap<>();
+
+    private volatile LocalDate cargadoDesde;
+
+    // Escrituras (registrar/quitar/purgar) contra el intercambio de mapas de cargar()
+    private final ReentrantReadWriteLock intercambio = new ReentrantReadWriteLock();
+
+    // Último cambio de cada reserva mientras se reconstruye (null fuera de cargar)
+    private volatile ConcurrentHashMap<Long, Cambio> cambios;
+
+    record Clave(Long espacioId, LocalDate fecha) {
+    }
+
+    // clave null = quitada
+    private record Cambio(Clave clave, int inicio, int fin) {
+    }
+
+    // Al arrancar (después de los CommandLineRunner, p. ej. DataInitializer) y periódicamente:
+    // recoge lo que cambió backend-admin y reintenta si la primera carga falló
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.disponibilidad.recarga-ms:300000}",
+            fixedDelayString = "${app.disponibilidad.recarga-ms:300000}")
+    public synchronized void cargar() {
+        LocalDate desde = LocalDate.now();
+        intercambio.writeLock().lock();
+        try {
+            cambios = new ConcurrentHashMap<>();
+        } finally {
+            intercambio.writeLock().unlock();
+        }
+        try {
+            ConcurrentHashMap<Clave, Franjas> nuevasFranjas = new ConcurrentHashMap<>();
+            ConcurrentHashMap<Long, Clave> nuevasUbicaciones = new ConcurrentHashMap<>();
+            List<Object[]> filas = reservaRepository.findFranjasDesde(desde, EstadoReserva.CANCELADA);
+            for (Object[] f : filas) {
+                indexar(nuevasFranjas, nuevasUbicaciones, (Long) f[0], new Clave((Long) f[1], (LocalDate) f[2]),
+                        ((LocalTime) f[3]).toSecondOfDay(), ((LocalTime) f[4]).toSecondOfDay());
+            }
+
+            Map<Clave, Franjas> previas;
+            intercambio.writeLock().lock();
+            try {
+                // Un purgarAntesDe durante la carga pudo dejar el índice más adelante
+                LocalDate actual = cargadoDesde;
+                if (actual != null && actual.isAfter(desde)) desde = actual;
+                LocalDate limite = desde;
+                cambios.forEach((id, c) -> {
+                    if (c.clave() == null) {
+                        quitar(nuevasFranjas, nuevasUbicaciones, id);
+                    } else {
+                        indexar(nuevasFranjas, nuevasUbicaciones, id, c.clave(), c.inicio(), c.fin());
+                    }
+                });
+                nuevasFranjas.keySet().removeIf(c -> c.fecha().isBefore(limite));
+                nuevasUbicaciones.values().removeIf(c -> c.fecha().isBefore(limite));
+                previas = actual != null ? franjas : null;
+                franjas = nuevasFranjas;
+                ubicaciones = nuevasUbicaciones;
+                cargadoDesde = desde;
+            } finally {
+                cambios = null;
+                intercambio.writeLock().unlock();
+            }
+            int distintas = previas != null ? avisarDiferencias(previas, nuevasFranjas, desde) : 0;
+            logger.info("Índice de disponibilidad cargado: {} reservas en {} franjas ({} distintas de la carga anterior)",
+                    filas.size(), nuevasFranjas.size(), distintas);
+        } catch (RuntimeException e) {
+            cambios = null;
+            logger.warn("No se pudo cargar el índice de disponibilidad ({}). Se consultará la base de datos.", e.getMessage());
+        }
+    }
+
+    public boolean isListo() {
+        return cargadoDesde != null;
+    }
+
+    // Registrar o actualizar una reserva (si está cancelada se quita del índice)
+    public void registrar(Reserva r) {
+        if (r == null || r.getId() == null) return;
+        if (r.getEstado() == EstadoReserva.CANCELADA) {
+            quitar(r.getId());
+            return;
+        }
+        indexar(r.getId(), r.getEspacio().getId(), r.getFechaReserva(), r.getHoraInicio(), r.getHoraFin());
+    }
+
+    public void quitar(Long reservaId) {
+        if (reservaId == null) return;
+        intercambio.readLock().lock();
+        try {
+            quitar(franjas, ubicaciones, reservaId);
+            anotar(reservaId, new Cambio(null, 0, 0));
+        } finally {
+            intercambio.readLock().unlock();
+        }
+    }
+
+    // Deja de cubrir las fechas anteriores (pasan a consultarse en la BD) y libera sus franjas
+    public int purgarAntesDe(LocalDate fecha) {
+        intercambio.writeLock().lock();
+        try {
+            LocalDate desde = cargadoDesde;
+            if (desde == null || !desde.isBefore(fecha)) return 0;
+            cargadoDesde = fecha;
+            int antes = franjas.size();
+            franjas.keySet().removeIf(c -> c.fecha().isBefore(fecha));
+            ubicaciones.values().removeIf(c -> c.fecha().isBefore(fecha));
+            return antes - franjas.size();
+        } finally {
+            intercambio.writeLock().unlock();
+        }
+    }
+
+    @Timed(value = "disponibilidad.indice", extraTags = {"operacion", "estaDisponible"})
+    public boolean estaDisponible(Long espacioId, LocalDate fecha, LocalTime horaInicio, LocalTime horaFin) {
+        if (!cubre(fecha)) {
+            return reservaRepository.findConflictos(espacioId, fecha, horaInicio, horaFin, EstadoReserva.CANCELADA).isEmpty();
+        }
+        Franjas f = franjas.get(new Clave(espacioId, fecha));
+        if (f == null || !f.solapa(horaInicio.toSecondOfDay(), horaFin.toSecondOfDay())) return true;
+        // Ocupado según el índice: se confirma por si la reserva se canceló o movió fuera de esta instancia
+        return reservaRepository.findConflictos(espacioId, fecha, horaInicio, horaFin, EstadoReserva.CANCELADA).isEmpty();
+    }
+
+    // Ids de las reservas que se solapan con el horario indicado
+    @Timed(value = "disponibilidad.indice", extraTags = {"operacion", "conflictos"})
+    public List<Long> conflictos(Long espacioId, LocalDate fecha, LocalTime horaInicio, LocalTime horaFin) {
+        if (!cubre(fecha)) {
+            return reservaRepository.findConflictos(espacioId, fecha, horaInicio, horaFin, EstadoReserva.CANCELADA);
+        }
+        Franjas f = franjas.get(new Clave(espacioId, fecha));
+        if (f == null || f.conflictos(horaInicio.toSecondOfDay(), horaFin.toSecondOfDay()).isEmpty()) return List.of();
+        return reservaRepository.findConflictos(espacioId, fecha, horaInicio, horaFin, EstadoReserva.CANCELADA);
+    }
+
+    // Recorre las franjas ocupadas (en segundos del día) de un espacio y fecha
+    public void paraCadaFranja(Long espacioId, LocalDate fecha, FranjaVisitor visitor) {
+        if (!cubre(fecha)) {
+            for (Object[] f : reservaRepository.findHorariosOcupados(espacioId, fecha, EstadoReserva.CANCELADA)) {
+                visitor.visitar(((LocalTime) f[0]).toSecondOfDay(), ((LocalTime) f[1]).toSecondOfDay());
+            }
+            return;
+        }
+        Franjas f = franjas.get(new Clave(espacioId, fecha));
+        if (f == null) return;
+        for (int i = 0; i < f.ids.length; i++) {
+            visitor.visitar(f.inicios[i], f.fines[i]);
+        }
+    }
+
+    @FunctionalInterface
+    public interface FranjaVisitor {
+        void visitar(int inicioSegundos, int finSegundos);
+    }
+
+    private boolean cubre(LocalDate fecha) {
+        LocalDate desde = cargadoDesde;
+        return desde != null && !fecha.isBefore(desde);
+    }
+
+    private void indexar(Long id, Long espacioId, LocalDate fecha, LocalTime horaInicio, LocalTime horaFin) {
+        Clave clave = new Clave(espacioId, fecha);
+        int inicio = horaInicio.toSecondOfDay();
+        int fin = horaFin.toSecondOfDay();
+        intercambio.readLock().lock();
+        try {
+            indexar(franjas, ubicaciones, id, clave, inicio, fin);
+            anotar(id, new Cambio(clave, inicio, fin));
+        } finally {
+            intercambio.readLock().unlock();
+        }
+    }
+
+    // Con una reconstrucción en curso, el cambio se reaplica sobre los mapas nuevos
+    private void anotar(Long id, Cambio cambio) {
+        ConcurrentHashMap<Long, Cambio> c = cambios;
+        if (c != null) c.put(id, cambio);
+    }
+
+    private static void indexar(ConcurrentHashMap<Clave, Franjas> franjas, ConcurrentHashMap<Long, Clave> ubicaciones,
+                                Long id, Clave nueva, int inicio, int fin) {
+        ubicaciones.compute(id, (k, anterior) -> {
+            if (anterior != null && !anterior.equals(nueva)) {
+                franjas.computeIfPresent(anterior, (c, v) -> v.sin(id));
+            }
+            franjas.compute(nueva, (c, v) -> (v == null ? Franjas.VACIA : v).con(id, inicio, fin));
+            return nueva;
+        });
+    }
+
+    private static void quitar(ConcurrentHashMap<Clave, Franjas> franjas, ConcurrentHashMap<Long, Clave> ubicaciones,
+                               Long id) {
+        ubicaciones.computeIfPresent(id, (k, clave) -> {
+            franjas.computeIfPresent(clave, (c, v) -> v.sin(id));
+            return null;
+        });
+    }
+
+    // Claves cuyas franjas cambiaron fuera de esta instancia: se avisa a los suscriptores SSE
+    private int avisarDiferencias(Map<Clave, Franjas> previas, Map<Clave, Franjas> nuevas, LocalDate desde) {
+        Set<Clave> distintas = new HashSet<>();
+        previas.forEach((clave, f) -> {
+            if (!clave.fecha().isBefore(desde) && !f.mismas(nuevas.get(clave))) distintas.add(clave);
+        });
+        nuevas.forEach((clave, f) -> {
+            if (!f.mismas(previas.get(clave))) distintas.add(clave);
+        });
+        for (Clave c : distintas) {
+            eventos.publishEvent(new ReservaCambiadaEvent(null, c.espacioId(), c.fecha(), null, null));
+        }
+        return distintas.size();
+    }
+
+    /**
+     * Lista inmutable de intervalos [inicio, fin) en segundos del día,
+     * ordenada por inicio. maxFin[i] es el mayor fin entre 0..i, lo que
+     * permite responder "¿hay solapamiento?" con una búsqueda binaria.
+     */
+    static final class Franjas {
+        static final Franjas VACIA = new Franjas(new long[0], new int[0], new int[0]);
+
+        final long[] ids;
+        final int[] inicios;
+        final int[] fines;
+        final int[] maxFin;
+
+        Franjas(long[] ids, int[] inicios, int[] fines) {
+            this.ids = ids;
+            this.inicios = inicios;
+            this.fines = fines;
+            this.maxFin = new int[fines.length];
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < fines.length; i++) {
+                max = Math.max(max, fines[i]);
+                maxFin[i] = max;
+            }
+        }
+
+        Franjas con(long id, int inicio, int fin) {
+            Franjas base = sin(id);
+            if (base == null) base = VACIA;
+            int n = base.ids.length;
+            int pos = base.antesDe(inicio + 1);
+            long[] nIds = new long[n + 1];
+            int[] nInicios = new int[n + 1];
+            int[] nFines = new int[n + 1];
+            System.arraycopy(base.ids, 0, nIds, 0, pos);
+            System.arraycopy(base.inicios, 0, nInicios, 0, pos);
+            System.arraycopy(base.fines, 0, nFines, 0, pos);
+            nIds[pos] = id;
+            nInicios[pos] = inicio;
+            nFines[pos] = fin;
+            System.arraycopy(base.ids, pos, nIds, pos + 1, n - pos);
+            System.arraycopy(base.inicios, pos, nInicios, pos + 1, n - pos);
+            System.arraycopy(base.fines, pos, nFines, pos + 1, n - pos);
+            return new Franjas(nIds, nInicios, nFines);
+        }
+
+        Franjas sin(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    if (ids.length == 1) return null;
+                    long[] nIds = new long[ids.length - 1];
+                    int[] nInicios = new int[ids.length - 1];
+                    int[] nFines = new int[ids.length - 1];
+                    System.arraycopy(ids, 0, nIds, 0, i);
+                    System.arraycopy(inicios, 0, nInicios, 0, i);
+                    System.arraycopy(fines, 0, nFines, 0, i);
+                    System.arraycopy(ids, i + 1, nIds, i, ids.length - i - 1);
+                    System.arraycopy(inicios, i + 1, nInicios, i, ids.length - i - 1);
+                    System.arraycopy(fines, i + 1, nFines, i, ids.length - i - 1);
+                    return new Franjas(nIds, nInicios, nFines);
+                }
+            }
+            return this;
+        }
+
+        boolean mismas(Franjas otra) {
+            return otra != null && Arrays.equals(ids, otra.ids)
+                    && Arrays.equals(inicios, otra.inicios) && Arrays.equals(fines, otra.fines);
+        }
+
+        boolean solapa(int inicio, int fin) {
+            int k = antesDe(fin);
+            return k > 0 && maxFin[k - 1] > inicio;
+        }
+
+        List<Long> conflictos(int inicio, int fin) {
+            int k = antesDe(fin);
+            if (k == 0 || maxFin[k - 1] <= inicio) return List.of();
+            List<Long> res = new ArrayList<>();
+            for (int i = 0; i < k; i++) {
+                if (fines[i] > inicio) res.add(ids[i]);
+            }
+            return res;
+        }
+
+        // Cantidad de intervalos cuyo inicio es menor que 'limite'
+        int antesDe(int limite) {
+            int pos = Arrays.binarySearch(inicios, limite);
+            if (pos < 0) return -pos - 1;
+            while (pos > 0 && inicios[pos - 1] == limite) pos--;
+            return pos;
+        }
+    }
+}
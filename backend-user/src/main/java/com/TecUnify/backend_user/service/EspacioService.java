@@ -1,44 +1,64 @@
 package com.TecUnify.backend_user.service;
 
+import com.TecUnify.backend_user.config.CacheConfig;
 import com.TecUnify.backend_user.dto.EspacioDTO;
+import com.TecUnify.backend_user.dto.HorariosDisponiblesDTO;
 import com.TecUnify.backend_user.model.Espacio;
 import com.TecUnify.backend_user.repository.EspacioRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Service
 public class EspacioService {
 
     private final EspacioRepository espacioRepository;
+    private final HorarioSlotEngine horarioSlotEngine;
+    private final BusquedaEspacios busquedaEspacios;
+    private final CatalogoBootstrap catalogoBootstrap;
 
     // Obtener todos los espacios activos
+    @Cacheable(CacheConfig.ESPACIOS)
     public List<EspacioDTO> getAllActivos() {
-        return espacioRepository.findByActivoTrue().stream()
-                .map(EspacioDTO::fromEntity)
-                .collect(Collectors.toList());
+        return espacioRepository.findDTOByActivoTrue();
     }
 
     // Obtener un espacio por ID
+    @Cacheable(value = CacheConfig.ESPACIO, key = "#id", unless = "#result == null")
     public EspacioDTO getById(Long id) {
-        return espacioRepository.findById(id)
-                .map(EspacioDTO::fromEntity)
-                .orElse(null);
+        return espacioRepository.findDTOById(id).orElse(null);
+    }
+
+    // Horarios libres de un espacio en una fecha
+    public HorariosDisponiblesDTO getHorariosDisponibles(Long id, LocalDate fecha) {
+        if (!espacioRepository.existsById(id)) return null;
+        return horarioSlotEngine.horariosDisponibles(id, fecha);
     }
 
     // Crear un espacio
+    @CacheEvict(value = CacheConfig.ESPACIOS, allEntries = true)
     public Espacio create(EspacioDTO dto) {
         Espacio espacio = dto.toEntity();
         espacio.setActivo(true);
-        return espacioRepository.save(espacio);
+        Espacio guardado = espacioRepository.save(espacio);
+        busquedaEspacios.actualizar(guardado.getId());
+        catalogoBootstrap.reconstruir();
+        return guardado;
     }
 
     // Actualizar un espacio
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.ESPACIOS, allEntries = true),
+            @CacheEvict(value = CacheConfig.ESPACIO, key = "#id")
+    })
     public Espacio update(Long id, EspacioDTO dto) {
-        return espacioRepository.findById(id).map(e -> {
+        Espacio actualizado = espacioRepository.findById(id).map(e -> {
             e.setNombre(dto.getNombre());
             e.setDescripcion(dto.getDescripcion());
             e.setCapacidad(dto.getCapacidad());
@@ -46,21 +66,41 @@ public class EspacioService {
             e.setImagenUrl(dto.getImagenUrl());
             return espacioRepository.save(e);
         }).orElse(null);
+        if (actualizado != null) {
+            busquedaEspacios.actualizar(id);
+            catalogoBootstrap.reconstruir();
+        }
+        return actualizado;
     }
 
     // Eliminar (soft delete)
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.ESPACIOS, allEntries = true),
+            @CacheEvict(value = CacheConfig.ESPACIO, key = "#id")
+    })
     public void delete(Long id) {
         espacioRepository.findById(id).ifPresent(e -> {
             e.setActivo(false);
             espacioRepository.save(e);
         });
+        busquedaEspacios.actualizar(id);
+        catalogoBootstrap.reconstruir();
     }
 
     // Guardar imagen (URL)
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.ESPACIOS, allEntries = true),
+            @CacheEvict(value = CacheConfig.ESPACIO, key = "#id")
+    })
     public Espacio updateImagen(Long id, String imagenUrl) {
-        return espacioRepository.findById(id).map(e -> {
+        Espacio actualizado = espacioRepository.findById(id).map(e -> {
             e.setImagenUrl(imagenUrl);
             return espacioRepository.save(e);
         }).orElse(null);
+        if (actualizado != null) {
+            busquedaEspacios.actualizar(id);
+            catalogoBootstrap.reconstruir();
+        }
+        return actualizado;
     }
 }
@@ -0,0 +1,25 @@
+package com.TecUnify.backend_user.service;
+
+import com.TecUnify.backend_user.model.EstadoReserva;
+import com.TecUnify.backend_user.model.OutboxReserva;
+import com.TecUnify.backend_user.model.TipoEventoReserva;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Evento del ciclo de vida de una reserva tal como lo entrega RelayOutbox.
+ * id es el del outbox: sirve para descartar duplicados (la entrega es al
+ * menos una vez).
+ */
+public record EventoReserva(Long id, Long reservaId, TipoEventoReserva tipo, Long usuarioId, Long espacioId,
+                            LocalDate fechaReserva, LocalTime horaInicio, LocalTime horaFin,
+                            EstadoReserva estadoAnterior, EstadoReserva estadoActual, LocalDateTime creadoEn) {
+
+    static EventoReserva of(OutboxReserva o) {
+        return new EventoReserva(o.getId(), o.getReservaId(), o.getTipo(), o.getUsuarioId(), o.getEspacioId(),
+                o.getFechaReserva(), o.getHoraInicio(), o.getHoraFin(), o.getEstadoAnterior(), o.getEstadoActual(),
+                o.getCreadoEn());
+    }
+}
@@ -0,0 +1,107 @@
+package com.TecUnify.backend_user.service;
+
+import com.TecUnify.backend_user.dto.ReservaDTO;
+import com.TecUnify.backend_user.repository.ReservaFiltro;
+import com.TecUnify.backend_user.repository.ReservaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Exporta reservas fila por fila: se leen de a fetchSize desde un cursor y
+ * se escriben directo a la respuesta, así la memoria no depende del tamaño
+ * de la tabla. La transacción de solo lectura mantiene abierto el cursor
+ * (PostgreSQL solo usa fetchSize con autocommit desactivado).
+ */
+@Service
+public class ExportacionService {
+
+    private static final String CABECERA_CSV = "id,usuarioId,usuarioEmail,usuarioNombre,espacioId,espacioNombre," +
+            "fechaReserva,horaInicio,horaFin,motivo,estado,observaciones,precioTotal";
+
+    private final ReservaRepository reservaRepository;
+    private final TransactionTemplate lectura;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public ExportacionService(ReservaRepository reservaRepository,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${app.reservas.export-fetch-size:500}") int fetchSize) {
+        this.reservaRepository = reservaRepository;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    public long exportarCsv(ReservaFiltro filtro, OutputStream out) throws IOException {
+        return exportar(filtro, out, (w, r) -> filaCsv(w,
+                r.getId(), r.getUserId(), r.getUsuarioEmail(), r.getUsuarioNombre(),
+                r.getEspacioId(), r.getEspacioNombre(), r.getFechaReserva(), r.getHoraInicio(), r.getHoraFin(),
+                r.getMotivo(), r.getEstado(), r.getObservaciones(), r.getPrecioTotal()), CABECERA_CSV + "\n");
+    }
+
+    public long exportarNdjson(ReservaFiltro filtro, OutputStream out) throws IOException {
+        return exportar(filtro, out, (w, r) -> {
+            w.write(objectMapper.writeValueAsString(r));
+            w.write('\n');
+        }, null);
+    }
+
+    @FunctionalInterface
+    private interface EscritorFila {
+        void escribir(Writer w, ReservaDTO r) throws IOException;
+    }
+
+    // Devuelve la cantidad de filas escritas
+    private long exportar(ReservaFiltro filtro, OutputStream out, EscritorFila fila, String cabecera) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (cabecera != null) w.write(cabecera);
+        try {
+            Long filas = lectura.execute(status -> {
+                long n = 0;
+                try (Stream<ReservaDTO> stream = reservaRepository.streamFiltradas(filtro, fetchSize)) {
+                    Iterator<ReservaDTO> it = stream.iterator();
+                    while (it.hasNext()) {
+                        fila.escribir(w, it.next());
+                        n++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return n;
+            });
+            w.flush();
+            return Objects.requireNonNullElse(filas, 0L);
+        } catch (UncheckedIOException e) {
+            // El cliente cortó la descarga
+            throw e.getCause();
+        }
+    }
+
+    private static void filaCsv(Writer w, Object... valores) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) w.write(',');
+            w.write(csv(valores[i]));
+        }
+        w.write('\n');
+    }
+
+    private static String csv(Object valor) {
+        if (valor == null) return "";
+        String s = valor.toString();
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+            return s;
+        }
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,182 @@
+package com.TecUnify.backend_user.service;
+
+import com.TecUnify.backend_user.dto.FranjaHorariaDTO;
+import com.TecUnify.backend_user.dto.HorariosDisponiblesDTO;
+import com.TecUnify.backend_user.model.HorarioDisponibilidad;
+import com.TecUnify.backend_user.repository.HorarioDisponibilidadRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Motor de horarios disponibles basado en bitmaps: cada día se divide en
+ * slots de tamaño fijo, los HorarioDisponibilidad semanales de un espacio se
+ * compilan una vez en un bitmap por día de la semana y las reservas del día se
+ * restan con andNot.
+ */
+@Component
+public class HorarioSlotEngine {
+
+    private static final int SEGUNDOS_DIA = 24 * 60 * 60;
+    // Ids por consulta al precargar (tamaño de la lista IN)
+    private static final int LOTE_PRECARGA = 500;
+
+    private final HorarioDisponibilidadRepository horarioRepository;
+    private final DisponibilidadIndex disponibilidadIndex;
+    private final int minutosPorSlot;
+    private final int segundosPorSlot;
+    private final int slotsPorDia;
+    private final long ttlMillis;
+
+    // espacioId -> bitmaps de apertura por día de la semana (0=Domingo)
+    private final ConcurrentHashMap<Long, Semana> semanas = new ConcurrentHashMap<>();
+
+    record Semana(BitSet[] dias, long compiladaEn) {
+    }
+
+    public HorarioSlotEngine(HorarioDisponibilidadRepository horarioRepository,
+                             DisponibilidadIndex disponibilidadIndex,
+                             @Value("${app.horarios.minutos-por-slot:15}") int minutosPorSlot,
+                             @Value("${app.horarios.cache-ttl-segundos:300}") long ttlSegundos) {
+        if (minutosPorSlot <= 0 || (24 * 60) % minutosPorSlot != 0) {
+            throw new IllegalArgumentException("app.horarios.minutos-por-slot debe dividir 1440");
+        }
+        this.horarioRepository = horarioRepository;
+        this.disponibilidadIndex = disponibilidadIndex;
+        this.minutosPorSlot = minutosPorSlot;
+        this.segundosPorSlot = minutosPorSlot * 60;
+        this.slotsPorDia = SEGUNDOS_DIA / segundosPorSlot;
+        this.ttlMillis = ttlSegundos * 1000;
+    }
+
+    @Timed(value = "disponibilidad.horarios", description = "Ventanas libres de un espacio en una fecha")
+    public HorariosDisponiblesDTO horariosDisponibles(Long espacioId, LocalDate fecha) {
+        return HorariosDisponiblesDTO.builder()
+                .espacioId(espacioId)
+                .fecha(fecha)
+                .minutosPorSlot(minutosPorSlot)
+                .ventanas(ventanas(libres(espacioId, fecha)))
+                .build();
+    }
+
+    // Slots libres = apertura del día AND NOT slots ocupados por reservas
+    public BitSet libres(Long espacioId, LocalDate fecha) {
+        BitSet libres = (BitSet) apertura(espacioId, fecha).clone();
+        if (libres.isEmpty()) return libres;
+        BitSet ocupados = new BitSet(slotsPorDia);
+        disponibilidadIndex.paraCadaFranja(espacioId, fecha, (inicio, fin) -> {
+            int desde = inicio / segundosPorSlot;
+            int hasta = techo(fin);
+            if (desde < hasta) ocupados.set(desde, hasta);
+        });
+        libres.andNot(ocupados);
+        return libres;
+    }
+
+    // ¿El horario [horaInicio, horaFin) cae completo dentro de slots libres?
+    public boolean estaLibre(BitSet libres, LocalTime horaInicio, LocalTime horaFin) {
+        int desde = horaInicio.toSecondOfDay() / segundosPorSlot;
+        int hasta = techo(horaFin.toSecondOfDay());
+        return desde < hasta && libres.nextClearBit(desde) >= hasta;
+    }
+
+    // Ventana libre contigua que contiene [horaInicio, horaFin), o null si no está libre completo
+    public FranjaHorariaDTO ventanaQueContiene(BitSet libres, LocalTime horaInicio, LocalTime horaFin) {
+        if (!estaLibre(libres, horaInicio, horaFin)) return null;
+        int desde = horaInicio.toSecondOfDay() / segundosPorSlot;
+        int inicio = libres.previousClearBit(desde) + 1;
+        int fin = Math.min(libres.nextClearBit(desde), slotsPorDia);
+        return new FranjaHorariaDTO(hora(inicio), hora(fin));
+    }
+
+    // Compila de una vez (una consulta por lote) las semanas que faltan o vencieron
+    public void precargar(Collection<Long> espacioIds) {
+        long ahora = System.currentTimeMillis();
+        List<Long> faltan = new ArrayList<>();
+        for (Long id : espacioIds) {
+            Semana semana = semanas.get(id);
+            if (semana == null || ahora - semana.compiladaEn() > ttlMillis) faltan.add(id);
+        }
+        if (faltan.isEmpty()) return;
+
+        Map<Long, BitSet[]> dias = new HashMap<>();
+        for (Long id : faltan) {
+            dias.put(id, semanaVacia());
+        }
+        for (int i = 0; i < faltan.size(); i += LOTE_PRECARGA) {
+            List<Long> lote = faltan.subList(i, Math.min(i + LOTE_PRECARGA, faltan.size()));
+            for (Object[] h : horarioRepository.findFranjasActivas(lote)) {
+                marcar(dias.get((Long) h[0]), (Integer) h[1], (LocalTime) h[2], (LocalTime) h[3]);
+            }
+        }
+        dias.forEach((id, d) -> semanas.put(id, new Semana(d, ahora)));
+    }
+
+    public void invalidar(Long espacioId) {
+        semanas.remove(espacioId);
+    }
+
+    private BitSet apertura(Long espacioId, LocalDate fecha) {
+        long ahora = System.currentTimeMillis();
+        Semana semana = semanas.get(espacioId);
+        if (semana == null || ahora - semana.compiladaEn() > ttlMillis) {
+            semana = compilar(espacioId, ahora);
+            semanas.put(espacioId, semana);
+        }
+        return semana.dias()[fecha.getDayOfWeek().getValue() % 7];
+    }
+
+    private Semana compilar(Long espacioId, long ahora) {
+        BitSet[] dias = semanaVacia();
+        for (HorarioDisponibilidad h : horarioRepository.findByEspacioIdAndActivoTrue(espacioId)) {
+            marcar(dias, h.getDiaSemana(), h.getHoraInicio(), h.getHoraFin());
+        }
+        return new Semana(dias, ahora);
+    }
+
+    private BitSet[] semanaVacia() {
+        BitSet[] dias = new BitSet[7];
+        for (int i = 0; i < 7; i++) {
+            dias[i] = new BitSet(slotsPorDia);
+        }
+        return dias;
+    }
+
+    private void marcar(BitSet[] dias, Integer diaSemana, LocalTime horaInicio, LocalTime horaFin) {
+        if (diaSemana == null || diaSemana < 0 || diaSemana > 6 || horaInicio == null || horaFin == null) return;
+        // Solo cuentan los slots completamente dentro del horario
+        int desde = techo(horaInicio.toSecondOfDay());
+        int hasta = horaFin.toSecondOfDay() / segundosPorSlot;
+        if (desde < hasta) {
+            dias[diaSemana].set(desde, hasta);
+        }
+    }
+
+    private List<FranjaHorariaDTO> ventanas(BitSet libres) {
+        List<FranjaHorariaDTO> ventanas = new ArrayList<>();
+        for (int i = libres.nextSetBit(0); i >= 0 && i < slotsPorDia; i = libres.nextSetBit(i)) {
+            int fin = Math.min(libres.nextClearBit(i), slotsPorDia);
+            ventanas.add(new FranjaHorariaDTO(hora(i), hora(fin)));
+            i = fin;
+        }
+        return ventanas;
+    }
+
+    private int techo(int segundos) {
+        return (segundos + segundosPorSlot - 1) / segundosPorSlot;
+    }
+
+    private LocalTime hora(int slot) {
+        return slot >= slotsPorDia ? LocalTime.MAX : LocalTime.ofSecondOfDay((long) slot * segundosPorSlot);
+    }
+}
@@ -0,0 +1,106 @@
+package com.TecUnify.backend_user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Respuestas ya emitidas por clave de idempotencia (header Idempotency-Key),
+ * con TTL. El primer request con una clave ejecuta la acción; los reintentos
+ * reciben la misma respuesta sin volver a insertar, y si llegan mientras el
+ * original sigue en curso esperan su resultado. Los errores 5xx y las
+ * excepciones no se guardan, para que el reintento vuelva a intentarlo.
+ */
+@Component
+public class IdempotenciaStore implements MeterBinder {
+
+    public static final String HEADER_REPETIDA = "Idempotent-Replayed";
+
+    private record Entrada(String huella, CompletableFuture<ResponseEntity<?>> respuesta) {
+    }
+
+    private final Cache<String, Entrada> cache;
+    private final long esperaMs;
+    private final LongAdder repetidas = new LongAdder();
+
+    public IdempotenciaStore(@Value("${app.reservas.idempotencia.max-entradas:100000}") long maxEntradas,
+                             @Value("${app.reservas.idempotencia.ttl-segundos:86400}") long ttlSegundos,
+                             @Value("${app.reservas.idempotencia.espera-ms:10000}") long esperaMs) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .build();
+        this.esperaMs = esperaMs;
+    }
+
+    /**
+     * Ejecuta la acción una sola vez por clave. La huella resume el cuerpo del
+     * request: reutilizar la clave con otro contenido es un error del cliente (422).
+     */
+    public ResponseEntity<?> ejecutar(String clave, String huella, Supplier<ResponseEntity<?>> accion) {
+        Entrada nueva = new Entrada(huella, new CompletableFuture<>());
+        Entrada previa = cache.asMap().putIfAbsent(clave, nueva);
+        if (previa == null) {
+            return primeraVez(clave, nueva, accion);
+        }
+        if (!previa.huella().equals(huella)) {
+            return ResponseEntity.status(422).body("La Idempotency-Key ya se usó con otra solicitud");
+        }
+        try {
+            ResponseEntity<?> r = previa.respuesta().get(esperaMs, TimeUnit.MILLISECONDS);
+            repetidas.increment();
+            return ResponseEntity.status(r.getStatusCode())
+                    .headers(r.getHeaders())
+                    .header(HEADER_REPETIDA, "true")
+                    .body(r.getBody());
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(409).body("La solicitud original sigue en proceso");
+        } catch (ExecutionException e) {
+            // El original falló sin respuesta guardable: este reintento toma su lugar
+            return ejecutar(clave, huella, accion);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(503).body("Solicitud interrumpida");
+        }
+    }
+
+    private ResponseEntity<?> primeraVez(String clave, Entrada entrada, Supplier<ResponseEntity<?>> accion) {
+        ResponseEntity<?> r;
+        try {
+            r = accion.get();
+        } catch (RuntimeException | Error e) {
+            cache.asMap().remove(clave, entrada);
+            entrada.respuesta().completeExceptionally(e);
+            throw e;
+        }
+        if (r.getStatusCode().is5xxServerError()) {
+            cache.asMap().remove(clave, entrada);
+        }
+        entrada.respuesta().complete(r);
+        return r;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("reservas.idempotencia.claves", cache, Cache::estimatedSize)
+                .description("Claves de idempotencia guardadas")
+                .register(registry);
+        FunctionCounter.builder("reservas.idempotencia.repetidas", repetidas, LongAdder::sum)
+                .description("Reintentos respondidos con la respuesta guardada")
+                .register(registry);
+    }
+}
@@ -0,0 +1,59 @@
+package com.TecUnify.backend_user.service;
+
+import com.TecUnify.backend_user.dto.IdentidadUsuario;
+import com.TecUnify.backend_user.model.User;
+import com.TecUnify.backend_user.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Caché acotada email -> identidad para el findByEmail que abre casi todos
+ * los requests. La carga por clave es atómica (Caffeine.get), así que una
+ * invalidación concurrente no deja un valor viejo. Los usuarios inexistentes
+ * no se cachean.
+ */
+@Component
+public class IdentidadCache implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final Cache<String, IdentidadUsuario> cache;
+
+    public IdentidadCache(UserRepository userRepository,
+                          @Value("${app.identidad.max-entradas:10000}") long maxEntradas,
+                          @Value("${app.identidad.ttl-segundos:300}") long ttlSegundos) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+    }
+
+    public IdentidadUsuario porEmail(String email) {
+        if (email == null || email.isBlank()) return null;
+        return cache.get(email, e -> userRepository.findByEmail(e).map(IdentidadUsuario::of).orElse(null));
+    }
+
+    public void actualizar(User user) {
+        if (user != null && user.getEmail() != null) {
+            cache.put(user.getEmail(), IdentidadUsuario.of(user));
+        }
+    }
+
+    public void invalidar(String email) {
+        if (email != null) cache.invalidate(email);
+    }
+
+    // Aciertos, fallos y expulsiones como cache.* {cache=identidad}
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "identidad");
+    }
+}
@@ -0,0 +1,159 @@
+package com.TecUnify.backend_user.service;
+
+import com.TecUnify.backend_user.dto.ListaEsperaDTO;
+import com.TecUnify.backend_user.dto.ReservaDTO;
+import com.TecUnify.backend_user.model.*;
+import com.TecUnify.backend_user.repository.EspacioRepository;
+import com.TecUnify.backend_user.repository.ListaEsperaRepository;
+import com.TecUnify.backend_user.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Lista de espera por horario (espacio, fecha, inicio, fin). Cuando una
+ * reserva se cancela o se elimina, la cola de ese espacio y fecha se revisa
+ * en segundo plano, fuera del request de cancelación, y cada entrada cuyo
+ * horario quedó libre se convierte en una reserva PENDIENTE, en orden de
+ * llegada. La pasada corre bajo el bloqueo de la franja, así que dos
+ * cancelaciones simultáneas se procesan una tras otra.
+ */
+@Service
+@RequiredArgsConstructor
+public class ListaEsperaService implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(ListaEsperaService.class);
+
+    private final ListaEsperaRepository listaEsperaRepository;
+    private final UserRepository userRepository;
+    private final EspacioRepository espacioRepository;
+    private final ReservaService reservaService;
+    private final DisponibilidadIndex disponibilidadIndex;
+    private final ReservaLocks reservaLocks;
+
+    private final ExecutorService promociones = Executors.newVirtualThreadPerTaskExecutor();
+
+    private Counter promovidas;
+
+    // Anota al usuario para un horario ocupado; null si el usuario o el espacio no existen
+    public ListaEspera unirse(ReservaDTO dto) {
+        if (dto.getEspacioId() == null || dto.getFechaReserva() == null
+                || dto.getHoraInicio() == null || dto.getHoraFin() == null
+                || !dto.getHoraFin().isAfter(dto.getHoraInicio())) {
+            throw new IllegalArgumentException("Horario de reserva inválido");
+        }
+        if (dto.getFechaReserva().isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("No se puede reservar en fechas pasadas");
+        }
+
+        User user = userRepository.findById(dto.getUserId()).orElse(null);
+        Espacio espacio = espacioRepository.findById(dto.getEspacioId()).orElse(null);
+        if (user == null || espacio == null) return null;
+
+        if (disponibilidadIndex.estaDisponible(
+                dto.getEspacioId(), dto.getFechaReserva(), dto.getHoraInicio(), dto.getHoraFin())) {
+            throw new IllegalStateException("El horario está libre: reserve directamente");
+        }
+        if (listaEsperaRepository.existsByUsuarioIdAndEspacioIdAndFechaReservaAndHoraInicioAndHoraFinAndEstado(
+                user.getId(), espacio.getId(), dto.getFechaReserva(), dto.getHoraInicio(), dto.getHoraFin(),
+                EstadoEspera.ESPERANDO)) {
+            throw new IllegalStateException("Ya estás en la lista de espera de ese horario");
+        }
+
+        ListaEspera espera = ListaEspera.builder()
+                .usuario(user)
+                .espacio(espacio)
+                .fechaReserva(dto.getFechaReserva())
+                .horaInicio(dto.getHoraInicio())
+                .horaFin(dto.getHoraFin())
+                .motivo(dto.getMotivo())
+                .precioTotal(dto.getPrecioTotal() != null ? BigDecimal.valueOf(dto.getPrecioTotal()) : null)
+                .build();
+        try {
+            return listaEsperaRepository.save(espera);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("Ya estás en la lista de espera de ese horario");
+        }
+    }
+
+    public List<ListaEsperaDTO> getByUserId(Long userId) {
+        return listaEsperaRepository.findByUsuarioId(userId).stream().map(ListaEsperaDTO::fromEntity).toList();
+    }
+
+    public ListaEspera getById(Long id) {
+        return listaEsperaRepository.findById(id).orElse(null);
+    }
+
+    // Sale de la cola; falla si la entrada ya fue promovida (también si ocurre en este momento)
+    public void retirar(ListaEspera espera) {
+        if (espera.getEstado() != EstadoEspera.ESPERANDO) {
+            throw new IllegalStateException("La entrada ya no está en espera");
+        }
+        espera.setEstado(EstadoEspera.RETIRADA);
+        try {
+            listaEsperaRepository.saveAndFlush(espera);
+        } catch (OptimisticLockingFailureException e) {
+            throw new IllegalStateException("La entrada ya no está en espera");
+        }
+    }
+
+    // Una reserva que ocupaba su horario se canceló o eliminó: revisar la cola en segundo plano
+    @EventListener
+    public void reservaCambiada(ReservaCambiadaEvent e) {
+        boolean libero = e.anterior() != null && e.anterior() != EstadoReserva.CANCELADA
+                && (e.actual() == null || e.actual() == EstadoReserva.CANCELADA);
+        if (!libero || e.fecha().isBefore(LocalDate.now())) return;
+        promociones.execute(() -> promover(e.espacioId(), e.fecha()));
+    }
+
+    void promover(Long espacioId, LocalDate fecha) {
+        try {
+            reservaLocks.conBloqueo(espacioId, fecha, () -> {
+                LocalDateTime ahora = LocalDateTime.now();
+                for (ListaEspera espera : listaEsperaRepository.findCola(espacioId, fecha, EstadoEspera.ESPERANDO)) {
+                    // Un horario que ya empezó no se promueve
+                    if (!fecha.atTime(espera.getHoraInicio()).isAfter(ahora)) continue;
+                    Reserva r = reservaService.crearDesdeEspera(espera, guardada -> {
+                        espera.setEstado(EstadoEspera.PROMOVIDA);
+                        espera.setReservaId(guardada.getId());
+                        listaEsperaRepository.saveAndFlush(espera);
+                    });
+                    if (r != null) {
+                        if (promovidas != null) promovidas.increment();
+                        logger.info("Lista de espera {} promovida a la reserva {}", espera.getId(), r.getId());
+                    }
+                }
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            logger.warn("No se pudo procesar la lista de espera del espacio {} el {} ({})",
+                    espacioId, fecha, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        promovidas = Counter.builder("reservas.espera.promovidas")
+                .description("Entradas de la lista de espera convertidas en reserva")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        promociones.shutdown();
+    }
+}
@@ -1,8 +1,10 @@
 package com.TecUnify.backend_user.service;
 
-import com.TecUnify.backend_user.model.MotivoReserva;
+import com.TecUnify.backend_user.config.CacheConfig;
+import com.TecUnify.backend_user.dto.MotivoReservaDTO;
 import com.TecUnify.backend_user.repository.MotivoReservaRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import java.util.List;
 
@@ -11,12 +13,14 @@ import java.util.List;
 public class MotivoReservaService {
     private final MotivoReservaRepository motivoReservaRepository;
 
-    public List<MotivoReserva> getAllMotivosActivos() {
-        return motivoReservaRepository.findByActivoTrue();
+    @Cacheable(CacheConfig.MOTIVOS_RESERVA)
+    public List<MotivoReservaDTO> getAllMotivosActivos() {
+        return motivoReservaRepository.findDTOByActivoTrue();
     }
 
-    public MotivoReserva getMotivoById(Long id) {
-        return motivoReservaRepository.findById(id)
+    @Cacheable(value = CacheConfig.MOTIVO_RESERVA, key = "#id")
+    public MotivoReservaDTO getMotivoById(Long id) {
+        return motivoReservaRepository.findDTOById(id)
                 .orElseThrow(() -> new RuntimeException("Motivo de reserva no encontrado"));
     }
 }
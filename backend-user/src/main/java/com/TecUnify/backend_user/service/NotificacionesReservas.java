@@ -0,0 +1,320 @@
+package com.TecUnify.backend_user.service;
+
+import com.TecUnify.backend_user.model.Espacio;
+import com.TecUnify.backend_user.model.EstadoReserva;
+import com.TecUnify.backend_user.model.TipoEventoReserva;
+import com.TecUnify.backend_user.model.User;
+import com.TecUnify.backend_user.repository.EspacioRepository;
+import com.TecUnify.backend_user.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Correos al estudiante cuando su reserva se confirma o se cancela. Recibe
+ * los eventos del outbox (RelayOutbox) y solo los encola: el envío corre en
+ * un pool de hilos propio, así que ni el PUT del admin ni el relay esperan
+ * al SMTP.
+ * <p>
+ * Los avisos se agrupan por destinatario: durante la ventana de agrupación
+ * (o mientras el destinatario espera en la cola) los cambios nuevos se suman
+ * a su mismo correo y, para una misma reserva, solo cuenta el último estado
+ * (el de mayor id del outbox, también al reencolar un envío fallido).
+ * Cada hilo toma hasta tamano-lote destinatarios y los envía por una sola
+ * conexión SMTP. Los que fallan se reintentan con backoff exponencial.
+ * <p>
+ * La cola está acotada (capacidad destinatarios): si se llena, recibir lanza
+ * una excepción y el outbox reintenta el evento más tarde. Los avisos que
+ * sigan en memoria al apagar la aplicación se pierden.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.notificaciones", name = "habilitado", havingValue = "true")
+public class NotificacionesReservas implements SuscriptorReservas, MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(NotificacionesReservas.class);
+
+    // eventoId: id del outbox, ordena los avisos de una misma reserva
+    record Aviso(Long eventoId, Long reservaId, Long espacioId, LocalDate fecha, LocalTime horaInicio,
+                 LocalTime horaFin, EstadoReserva estado) {
+    }
+
+    // Avisos pendientes de un destinatario, uno por reserva (gana el evento más nuevo)
+    private static final class Buzon {
+        final Map<Long, Aviso> porReserva = new LinkedHashMap<>();
+        int intentos;
+    }
+
+    private final JavaMailSender mailSender;
+    private final UserRepository userRepository;
+    private final EspacioRepository espacioRepository;
+    private final String remitente;
+    private final int capacidad;
+    private final int tamanoLote;
+    private final long ventanaMs;
+    private final int maxIntentos;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+
+    private final ConcurrentHashMap<Long, Buzon> buzones = new ConcurrentHashMap<>();
+    private final AtomicInteger pendientes = new AtomicInteger();
+    private final LinkedBlockingQueue<Long> listos = new LinkedBlockingQueue<>();
+    private final ScheduledExecutorService programador;
+    private final ExecutorService trabajadores;
+    private volatile boolean activo = true;
+
+    // Eventos del outbox ya encolados: la entrega es al menos una vez
+    private final Cache<Long, Boolean> vistos = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofHours(6))
+            .build();
+
+    private final LongAdder enviados = new LongAdder();
+    private final LongAdder agrupados = new LongAdder();
+    private final LongAdder reintentos = new LongAdder();
+    private final LongAdder descartados = new LongAdder();
+
+    public NotificacionesReservas(JavaMailSender mailSender,
+                                  UserRepository userRepository,
+                                  EspacioRepository espacioRepository,
+                                  @Value("${app.notificaciones.remitente:reservas@tecunify.local}") String remitente,
+                                  @Value("${app.notificaciones.hilos:2}") int hilos,
+                                  @Value("${app.notificaciones.capacidad:10000}") int capacidad,
+                                  @Value("${app.notificaciones.tamano-lote:50}") int tamanoLote,
+                                  @Value("${app.notificaciones.ventana-ms:2000}") long ventanaMs,
+                                  @Value("${app.notificaciones.max-intentos:6}") int maxIntentos,
+                                  @Value("${app.notificaciones.backoff-base-ms:2000}") long backoffBaseMs,
+                                  @Value("${app.notificaciones.backoff-max-ms:600000}") long backoffMaxMs) {
+        this.mailSender = mailSender;
+        this.userRepository = userRepository;
+        this.espacioRepository = espacioRepository;
+        this.remitente = remitente;
+        this.capacidad = capacidad;
+        this.tamanoLote = tamanoLote;
+        this.ventanaMs = ventanaMs;
+        this.maxIntentos = maxIntentos;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+
+        this.programador = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("notificaciones-programador").daemon().factory());
+        // Hilos de plataforma a propósito: cada uno es a lo sumo una conexión SMTP abierta
+        this.trabajadores = Executors.newFixedThreadPool(hilos, Thread.ofPlatform()
+                .name("notificaciones-", 0).daemon().factory());
+        for (int i = 0; i < hilos; i++) {
+            trabajadores.execute(this::trabajar);
+        }
+    }
+
+    @Override
+    public void recibir(EventoReserva e) {
+        if (e.tipo() != TipoEventoReserva.ESTADO_CAMBIADO || e.usuarioId() == null
+                || (e.estadoActual() != EstadoReserva.CONFIRMADA && e.estadoActual() != EstadoReserva.CANCELADA)) {
+            return;
+        }
+        // Los cierres del job de vencimiento (horario ya terminado) no se notifican
+        if (e.fechaReserva() == null || e.horaFin() == null
+                || e.fechaReserva().atTime(e.horaFin()).isBefore(LocalDateTime.now())) {
+            return;
+        }
+        if (vistos.getIfPresent(e.id()) != null) return;
+
+        Aviso aviso = new Aviso(e.id(), e.reservaId(), e.espacioId(), e.fechaReserva(), e.horaInicio(), e.horaFin(),
+                e.estadoActual());
+        if (!encolar(e.usuarioId(), List.of(aviso), 0, ventanaMs, false)) {
+            throw new IllegalStateException("Cola de notificaciones llena");
+        }
+        vistos.put(e.id(), Boolean.TRUE);
+    }
+
+    // Suma los avisos al buzón del destinatario; si el buzón es nuevo, lo agenda tras la demora.
+    // forzar (reintentos) ignora la capacidad: esos avisos ya fueron aceptados. Un aviso reencolado
+    // no pisa al de un evento posterior de la misma reserva que llegó mientras fallaba el envío
+    private boolean encolar(Long usuarioId, Collection<Aviso> avisos, int intentos, long demoraMs, boolean forzar) {
+        boolean[] nuevo = {false};
+        Buzon buzon = buzones.compute(usuarioId, (k, b) -> {
+            if (b == null) {
+                if (pendientes.incrementAndGet() > capacidad && !forzar) {
+                    pendientes.decrementAndGet();
+                    return null;
+                }
+                b = new Buzon();
+                nuevo[0] = true;
+            } else if (!forzar) {
+                agrupados.add(avisos.size());
+            }
+            for (Aviso a : avisos) {
+                b.porReserva.merge(a.reservaId(), a, (previo, otro) -> otro.eventoId() > previo.eventoId() ? otro : previo);
+            }
+            b.intentos = Math.max(b.intentos, intentos);
+            return b;
+        });
+        if (buzon == null) return false;
+        if (nuevo[0]) {
+            programador.schedule(() -> listos.add(usuarioId), demoraMs, TimeUnit.MILLISECONDS);
+        }
+        return true;
+    }
+
+    private void trabajar() {
+        List<Long> usuarios = new ArrayList<>(tamanoLote);
+        while (activo) {
+            try {
+                Long primero = listos.poll(1, TimeUnit.SECONDS);
+                if (primero == null) continue;
+                usuarios.add(primero);
+                listos.drainTo(usuarios, tamanoLote - 1);
+                enviarLote(usuarios);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Error en el envío de notificaciones ({})", e.getMessage());
+            } finally {
+                usuarios.clear();
+            }
+        }
+    }
+
+    void enviarLote(List<Long> usuarios) {
+        Map<Long, Buzon> lote = new LinkedHashMap<>();
+        for (Long u : usuarios) {
+            Buzon b = buzones.remove(u);
+            if (b != null) {
+                pendientes.decrementAndGet();
+                lote.put(u, b);
+            }
+        }
+        if (lote.isEmpty()) return;
+
+        Map<Long, User> destinatarios = new HashMap<>();
+        for (User u : userRepository.findAllById(lote.keySet())) {
+            destinatarios.put(u.getId(), u);
+        }
+        Set<Long> espacioIds = new HashSet<>();
+        lote.values().forEach(b -> b.porReserva.values().forEach(a -> espacioIds.add(a.espacioId())));
+        Map<Long, String> espacios = new HashMap<>();
+        for (Espacio esp : espacioRepository.findAllById(espacioIds)) {
+            espacios.put(esp.getId(), esp.getNombre());
+        }
+
+        // Identidad: SimpleMailMessage compara por contenido
+        Map<SimpleMailMessage, Long> mensajes = new IdentityHashMap<>();
+        lote.forEach((usuarioId, buzon) -> {
+            User u = destinatarios.get(usuarioId);
+            if (u == null || u.getEmail() == null || u.getEmail().isBlank()) {
+                logger.debug("Usuario {} sin email: se omiten {} avisos", usuarioId, buzon.porReserva.size());
+                return;
+            }
+            mensajes.put(mensaje(u, buzon.porReserva.values(), espacios), usuarioId);
+        });
+        if (mensajes.isEmpty()) return;
+
+        Set<Long> fallidos = new HashSet<>();
+        try {
+            // Una sola conexión SMTP para todo el lote
+            mailSender.send(mensajes.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            e.getFailedMessages().keySet().forEach(m -> fallidos.add(mensajes.get(m)));
+            if (fallidos.isEmpty()) fallidos.addAll(mensajes.values());
+            logger.warn("Fallaron {} de {} notificaciones ({})", fallidos.size(), mensajes.size(), e.getMessage());
+        } catch (MailException e) {
+            fallidos.addAll(mensajes.values());
+            logger.warn("No se pudo enviar el lote de {} notificaciones ({})", mensajes.size(), e.getMessage());
+        }
+        enviados.add(mensajes.size() - fallidos.size());
+        for (Long usuarioId : fallidos) {
+            reintentar(usuarioId, lote.get(usuarioId));
+        }
+    }
+
+    private void reintentar(Long usuarioId, Buzon buzon) {
+        int intentos = buzon.intentos + 1;
+        if (intentos > maxIntentos) {
+            descartados.add(buzon.porReserva.size());
+            logger.error("Notificación al usuario {} descartada tras {} intentos (reservas {})",
+                    usuarioId, buzon.intentos, buzon.porReserva.keySet());
+            return;
+        }
+        reintentos.increment();
+        long espera = Math.min(backoffMaxMs, backoffBaseMs << Math.min(intentos - 1, 20));
+        encolar(usuarioId, buzon.porReserva.values(), intentos, espera, true);
+    }
+
+    private SimpleMailMessage mensaje(User u, Collection<Aviso> avisos, Map<Long, String> espacios) {
+        StringBuilder cuerpo = new StringBuilder();
+        cuerpo.append("Hola ").append(u.getFirstName() != null ? u.getFirstName() : "").append(",\n\n");
+        cuerpo.append(avisos.size() == 1 ? "Hay novedades sobre tu reserva:\n\n" : "Hay novedades sobre tus reservas:\n\n");
+        for (Aviso a : avisos) {
+            cuerpo.append("- ").append(espacios.getOrDefault(a.espacioId(), "Espacio " + a.espacioId()))
+                    .append(", ").append(a.fecha()).append(' ').append(a.horaInicio()).append('-').append(a.horaFin())
+                    .append(": ").append(etiqueta(a.estado())).append('\n');
+        }
+        cuerpo.append("\nTecUnify");
+
+        SimpleMailMessage m = new SimpleMailMessage();
+        m.setFrom(remitente);
+        m.setTo(u.getEmail());
+        if (avisos.size() == 1) {
+            Aviso a = avisos.iterator().next();
+            m.setSubject("Tu reserva fue " + etiqueta(a.estado()) + " ("
+                    + espacios.getOrDefault(a.espacioId(), "espacio") + ", " + a.fecha() + ")");
+        } else {
+            m.setSubject("Novedades de tus reservas (" + avisos.size() + ")");
+        }
+        m.setText(cuerpo.toString());
+        return m;
+    }
+
+    private static String etiqueta(EstadoReserva estado) {
+        return estado == EstadoReserva.CONFIRMADA ? "confirmada" : "cancelada";
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("notificaciones.pendientes", pendientes, AtomicInteger::get)
+                .description("Destinatarios con avisos sin enviar")
+                .register(registry);
+        FunctionCounter.builder("notificaciones.enviadas", enviados, LongAdder::sum)
+                .description("Correos de notificación entregados al SMTP")
+                .register(registry);
+        FunctionCounter.builder("notificaciones.agrupadas", agrupados, LongAdder::sum)
+                .description("Avisos sumados al correo pendiente de su destinatario")
+                .register(registry);
+        FunctionCounter.builder("notificaciones.reintentos", reintentos, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("notificaciones.descartadas", descartados, LongAdder::sum)
+                .description("Avisos descartados tras agotar los reintentos")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        activo = false;
+        programador.shutdownNow();
+        trabajadores.shutdownNow();
+        if (pendientes.get() > 0) {
+            logger.warn("Se apagan las notificaciones con {} destinatarios pendientes", pendientes.get());
+        }
+    }
+}
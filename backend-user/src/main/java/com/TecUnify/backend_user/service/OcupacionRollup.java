@@ -0,0 +1,162 @@
+package com.TecUnify.backend_user.service;
+
+import com.TecUnify.backend_user.model.EstadoReserva;
+import com.TecUnify.backend_user.model.Reserva;
+import com.TecUnify.backend_user.repository.ReservaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Minutos reservados por espacio, fecha y hora del día, para los últimos
+ * ventana-meses. ReservaService lo actualiza en cada alta, cancelación,
+ * cambio de estado o borrado, así los reportes recorren buckets y no
+ * reservas. Se reconstruye periódicamente: recoge lo escrito desde
+ * backend-admin y descarta los días que salieron de la ventana. Los rangos
+ * anteriores a la ventana se calculan con un GROUP BY en la BD.
+ * Las reservas canceladas no cuentan.
+ */
+@Component
+public class OcupacionRollup {
+    private static final Logger logger = LoggerFactory.getLogger(OcupacionRollup.class);
+
+    // fecha -> espacioId -> minutos reservados en cada hora (0..23)
+    private record Buckets(LocalDate desde,
+                           ConcurrentSkipListMap<LocalDate, ConcurrentHashMap<Long, AtomicIntegerArray>> porFecha) {
+    }
+
+    private final ReservaRepository reservaRepository;
+    private final int ventanaMeses;
+
+    // Se reemplaza entero al recargar; null hasta la primera carga (todo sale de la BD)
+    private volatile Buckets buckets;
+
+    public OcupacionRollup(ReservaRepository reservaRepository,
+                           @Value("${app.reportes.ventana-meses:12}") int ventanaMeses) {
+        this.reservaRepository = reservaRepository;
+        this.ventanaMeses = ventanaMeses;
+    }
+
+    // Un cambio que llega mientras se reconstruye puede faltar hasta la próxima recarga
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.reportes.recarga-ms:900000}", fixedDelayString = "${app.reportes.recarga-ms:900000}")
+    public synchronized void cargar() {
+        try {
+            LocalDate desde = LocalDate.now().minusMonths(ventanaMeses);
+            ConcurrentSkipListMap<LocalDate, ConcurrentHashMap<Long, AtomicIntegerArray>> nuevo =
+                    new ConcurrentSkipListMap<>();
+            List<Object[]> filas = reservaRepository.findFranjasDesde(desde, EstadoReserva.CANCELADA);
+            for (Object[] f : filas) {
+                aplicar(nuevo, (Long) f[1], (LocalDate) f[2], (LocalTime) f[3], (LocalTime) f[4], 1);
+            }
+            buckets = new Buckets(desde, nuevo);
+            logger.info("Rollup de ocupación cargado desde {}: {} reservas en {} fechas",
+                    desde, filas.size(), nuevo.size());
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo cargar el rollup de ocupación ({})", e.getMessage());
+        }
+    }
+
+    public void sumar(Reserva r) {
+        if (cuenta(r.getEstado())) aplicar(r, 1);
+    }
+
+    public void restar(Reserva r) {
+        if (cuenta(r.getEstado())) aplicar(r, -1);
+    }
+
+    // Franja de una reserva que dejó de contar (cambios de estado en bloque, sin entidad)
+    public void restar(Long espacioId, LocalDate fecha, LocalTime inicio, LocalTime fin) {
+        aplicar(espacioId, fecha, inicio, fin, -1);
+    }
+
+    // Después de cambiar el estado de una reserva ya guardada
+    public void cambioEstado(EstadoReserva anterior, Reserva r) {
+        boolean antes = cuenta(anterior);
+        boolean ahora = cuenta(r.getEstado());
+        if (antes != ahora) aplicar(r, ahora ? 1 : -1);
+    }
+
+    // Recorre los buckets con minutos > 0 entre dos fechas (inclusive); lo anterior
+    // a la ventana en memoria se agrega en la BD
+    public void paraCadaBucket(LocalDate desde, LocalDate hasta, BucketVisitor visitor) {
+        Buckets b = buckets;
+        if (b == null || desde.isBefore(b.desde())) {
+            LocalDate hastaBd = b == null || hasta.isBefore(b.desde()) ? hasta : b.desde().minusDays(1);
+            ConcurrentSkipListMap<LocalDate, ConcurrentHashMap<Long, AtomicIntegerArray>> historico =
+                    new ConcurrentSkipListMap<>();
+            for (Object[] f : reservaRepository.contarFranjasEntre(desde, hastaBd, EstadoReserva.CANCELADA)) {
+                aplicar(historico, (Long) f[0], (LocalDate) f[1], (LocalTime) f[2], (LocalTime) f[3],
+                        ((Number) f[4]).intValue());
+            }
+            visitar(historico, desde, hastaBd, visitor);
+            if (hastaBd.equals(hasta)) return;
+            desde = b.desde();
+        }
+        visitar(b.porFecha(), desde, hasta, visitor);
+    }
+
+    private static void visitar(ConcurrentSkipListMap<LocalDate, ConcurrentHashMap<Long, AtomicIntegerArray>> porFecha,
+                                LocalDate desde, LocalDate hasta, BucketVisitor visitor) {
+        for (Map.Entry<LocalDate, ConcurrentHashMap<Long, AtomicIntegerArray>> dia
+                : porFecha.subMap(desde, true, hasta, true).entrySet()) {
+            for (Map.Entry<Long, AtomicIntegerArray> espacio : dia.getValue().entrySet()) {
+                AtomicIntegerArray horas = espacio.getValue();
+                for (int h = 0; h < 24; h++) {
+                    int minutos = horas.get(h);
+                    if (minutos > 0) visitor.visitar(espacio.getKey(), dia.getKey(), h, minutos);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface BucketVisitor {
+        void visitar(Long espacioId, LocalDate fecha, int hora, int minutos);
+    }
+
+    private static boolean cuenta(EstadoReserva estado) {
+        return estado != EstadoReserva.CANCELADA;
+    }
+
+    private void aplicar(Reserva r, int signo) {
+        if (r.getEspacio() == null) return;
+        aplicar(r.getEspacio().getId(), r.getFechaReserva(), r.getHoraInicio(), r.getHoraFin(), signo);
+    }
+
+    // Reparte los minutos de [inicio, fin) entre las horas que toca
+    private void aplicar(Long espacioId, LocalDate fecha, LocalTime inicio, LocalTime fin, int signo) {
+        Buckets b = buckets;
+        // Fuera de la ventana no se crean buckets: esos días se consultan en la BD
+        if (b == null || fecha == null || fecha.isBefore(b.desde())) return;
+        aplicar(b.porFecha(), espacioId, fecha, inicio, fin, signo);
+    }
+
+    // signo: +n / -n reservas con la misma franja
+    private static void aplicar(ConcurrentSkipListMap<LocalDate, ConcurrentHashMap<Long, AtomicIntegerArray>> porFecha,
+                                Long espacioId, LocalDate fecha, LocalTime inicio, LocalTime fin, int signo) {
+        if (espacioId == null || fecha == null || inicio == null || fin == null) return;
+        int desde = inicio.toSecondOfDay() / 60;
+        int hasta = fin.toSecondOfDay() / 60;
+        if (hasta <= desde) return;
+        AtomicIntegerArray horas = porFecha
+                .computeIfAbsent(fecha, f -> new ConcurrentHashMap<>())
+                .computeIfAbsent(espacioId, e -> new AtomicIntegerArray(24));
+        for (int h = desde / 60; h < 24 && h * 60 < hasta; h++) {
+            int minutos = Math.min(hasta, h * 60 + 60) - Math.max(desde, h * 60);
+            if (minutos > 0) horas.addAndGet(h, signo * minutos);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.TecUnify.backend_user.service;
+
+import com.TecUnify.backend_user.model.EstadoReserva;
+import com.TecUnify.backend_user.model.OutboxReserva;
+import com.TecUnify.backend_user.model.Reserva;
+import com.TecUnify.backend_user.model.TipoEventoReserva;
+import com.TecUnify.backend_user.repository.OutboxReservaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Escritura del outbox de reservas. Se llama dentro de la transacción que
+ * modifica la reserva: el evento existe si y solo si el cambio se confirmó.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxReservas {
+
+    private final OutboxReservaRepository outboxRepository;
+
+    // Creación (anterior == null) o cambio de estado de una reserva ya guardada
+    public void registrar(Reserva r, EstadoReserva anterior) {
+        outboxRepository.save(evento(r, anterior == null ? TipoEventoReserva.CREADA : TipoEventoReserva.ESTADO_CAMBIADO,
+                anterior, r.getEstado()));
+    }
+
+    public void registrarCreadas(List<Reserva> creadas) {
+        List<OutboxReserva> eventos = new ArrayList<>(creadas.size());
+        for (Reserva r : creadas) {
+            eventos.add(evento(r, TipoEventoReserva.CREADA, null, r.getEstado()));
+        }
+        outboxRepository.saveAll(eventos);
+    }
+
+    public void registrarEliminada(Reserva r) {
+        outboxRepository.save(evento(r, TipoEventoReserva.ELIMINADA, r.getEstado(), null));
+    }
+
+    // Cambios de estado en bloque; filas [id, espacioId, fecha, horaInicio, horaFin, usuarioId]
+    public void registrarCambios(List<Object[]> filas, EstadoReserva anterior, EstadoReserva actual) {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<OutboxReserva> eventos = new ArrayList<>(filas.size());
+        for (Object[] f : filas) {
+            eventos.add(OutboxReserva.builder()
+                    .reservaId((Long) f[0])
+                    .tipo(TipoEventoReserva.ESTADO_CAMBIADO)
+                    .espacioId((Long) f[1])
+                    .fechaReserva((LocalDate) f[2])
+                    .horaInicio((LocalTime) f[3])
+                    .horaFin((LocalTime) f[4])
+                    .usuarioId((Long) f[5])
+                    .estadoAnterior(anterior)
+                    .estadoActual(actual)
+                    .creadoEn(ahora)
+                    .build());
+        }
+        outboxRepository.saveAll(eventos);
+    }
+
+    private static OutboxReserva evento(Reserva r, TipoEventoReserva tipo, EstadoReserva anterior,
+                                        EstadoReserva actual) {
+        return OutboxReserva.builder()
+                .reservaId(r.getId())
+                .tipo(tipo)
+                .usuarioId(r.getUsuario() != null ? r.getUsuario().getId() : null)
+                .espacioId(r.getEspacio() != null ? r.getEspacio().getId() : null)
+                .fechaReserva(r.getFechaReserva())
+                .horaInicio(r.getHoraInicio())
+                .horaFin(r.getHoraFin())
+                .estadoAnterior(anterior)
+                .estadoActual(actual)
+                .creadoEn(LocalDateTime.now())
+                .build();
+    }
+}
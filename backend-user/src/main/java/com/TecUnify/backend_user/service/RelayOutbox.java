@@ -0,0 +1,156 @@
+package com.TecUnify.backend_user.service;
+
+import com.TecUnify.backend_user.model.OutboxReserva;
+import com.TecUnify.backend_user.repository.OutboxReservaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Entrega los eventos del outbox de reservas a los SuscriptorReservas, fuera
+ * de los requests que los generaron. Cada lote se lee bloqueado (SKIP LOCKED)
+ * y se marca en la misma transacción, así que con varias instancias cada
+ * evento lo entrega una sola. Por reserva solo se toma el evento pendiente más
+ * antiguo: uno que falla se reintenta con backoff exponencial y, mientras
+ * tanto, los posteriores de esa reserva esperan sin frenar a las demás.
+ * Agotados los intentos se descarta y queda en el log.
+ */
+@Component
+public class RelayOutbox implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(RelayOutbox.class);
+
+    private final OutboxReservaRepository outboxRepository;
+    private final ObjectProvider<SuscriptorReservas> suscriptores;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanoLote;
+    private final int maxIntentos;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final long retencionHoras;
+
+    private final AtomicBoolean enCurso = new AtomicBoolean();
+
+    private Counter entregados;
+    private Counter descartados;
+    private Timer retraso;
+
+    public RelayOutbox(OutboxReservaRepository outboxRepository,
+                       ObjectProvider<SuscriptorReservas> suscriptores,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${app.outbox.tamano-lote:200}") int tamanoLote,
+                       @Value("${app.outbox.max-intentos:10}") int maxIntentos,
+                       @Value("${app.outbox.backoff-base-ms:1000}") long backoffBaseMs,
+                       @Value("${app.outbox.backoff-max-ms:300000}") long backoffMaxMs,
+                       @Value("${app.outbox.retencion-horas:72}") long retencionHoras) {
+        this.outboxRepository = outboxRepository;
+        this.suscriptores = suscriptores;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanoLote = tamanoLote;
+        this.maxIntentos = maxIntentos;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+        this.retencionHoras = retencionHoras;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.intervalo-ms:500}")
+    public void drenar() {
+        if (!enCurso.compareAndSet(false, true)) return;
+        try {
+            // Se sigue mientras se entregue algo: pueden haber quedado libres los siguientes de cada reserva
+            boolean seguir;
+            do {
+                seguir = Boolean.TRUE.equals(transactionTemplate.execute(status -> entregarLote()));
+            } while (seguir);
+        } catch (RuntimeException e) {
+            logger.warn("Falló el relay del outbox de reservas ({}); se reintenta en la próxima pasada", e.getMessage());
+        } finally {
+            enCurso.set(false);
+        }
+    }
+
+    // true si conviene pedir otro lote enseguida
+    private boolean entregarLote() {
+        // A lo sumo un evento por reserva (el más antiguo), sin los que esperan reintento
+        List<OutboxReserva> pendientes = outboxRepository.findPendientes(LocalDateTime.now(), tamanoLote);
+        if (pendientes.isEmpty()) return false;
+
+        List<SuscriptorReservas> destino = suscriptores.orderedStream().toList();
+        int procesados = 0;
+        for (OutboxReserva o : pendientes) {
+            if (entregar(o, destino)) {
+                o.setProcesadoEn(LocalDateTime.now());
+                o.setUltimoError(null);
+                procesados++;
+                if (entregados != null) entregados.increment();
+                if (retraso != null) retraso.record(Duration.between(o.getCreadoEn(), o.getProcesadoEn()));
+            } else if (o.getIntentos() >= maxIntentos) {
+                // Descartado: se marca para no frenar a la reserva; la fila guarda el último error
+                o.setProcesadoEn(LocalDateTime.now());
+                procesados++;
+                if (descartados != null) descartados.increment();
+                logger.error("Evento {} ({}) de la reserva {} descartado tras {} intentos: {}",
+                        o.getId(), o.getTipo(), o.getReservaId(), o.getIntentos(), o.getUltimoError());
+            }
+        }
+        return procesados > 0;
+    }
+
+    private boolean entregar(OutboxReserva o, List<SuscriptorReservas> destino) {
+        EventoReserva evento = EventoReserva.of(o);
+        try {
+            for (SuscriptorReservas s : destino) {
+                s.recibir(evento);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            int intentos = o.getIntentos() + 1;
+            o.setIntentos(intentos);
+            String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            o.setUltimoError(error.length() > 500 ? error.substring(0, 500) : error);
+            long espera = Math.min(backoffMaxMs, backoffBaseMs << Math.min(intentos - 1, 20));
+            o.setSiguienteIntento(LocalDateTime.now().plus(Duration.ofMillis(espera)));
+            logger.warn("Evento {} de la reserva {} falló (intento {}): {}",
+                    o.getId(), o.getReservaId(), intentos, o.getUltimoError());
+            return false;
+        }
+    }
+
+    @Scheduled(cron = "${app.outbox.purga-cron:0 30 3 * * *}")
+    public void purgar() {
+        try {
+            Integer borrados = transactionTemplate.execute(status ->
+                    outboxRepository.purgarProcesados(LocalDateTime.now().minusHours(retencionHoras)));
+            if (borrados != null && borrados > 0) {
+                logger.info("Outbox de reservas: {} eventos entregados purgados", borrados);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo purgar el outbox de reservas ({})", e.getMessage());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        entregados = Counter.builder("outbox.reservas.entregados")
+                .description("Eventos de reservas entregados a los suscriptores")
+                .register(registry);
+        descartados = Counter.builder("outbox.reservas.descartados")
+                .description("Eventos de reservas descartados tras agotar los reintentos")
+                .register(registry);
+        retraso = Timer.builder("outbox.reservas.retraso")
+                .description("Tiempo entre la escritura de un evento y su entrega")
+                .register(registry);
+    }
+}
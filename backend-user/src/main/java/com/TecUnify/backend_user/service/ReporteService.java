@@ -0,0 +1,104 @@
+package com.TecUnify.backend_user.service;
+
+import com.TecUnify.backend_user.dto.OcupacionDTO;
+import com.TecUnify.backend_user.dto.ReporteOcupacionDTO;
+import com.TecUnify.backend_user.repository.EspacioRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+public class ReporteService {
+
+    private static final Locale ES = Locale.forLanguageTag("es");
+    private static final Set<String> AGRUPACIONES = Set.of("espacio", "tipo", "dia", "hora");
+
+    private final OcupacionRollup ocupacionRollup;
+    private final EspacioRepository espacioRepository;
+
+    private static final class Acumulado {
+        final String nombre;
+        long minutos;
+
+        Acumulado(String nombre) {
+            this.nombre = nombre;
+        }
+    }
+
+    // Horas reservadas en el rango, agrupadas; cuesta O(buckets del rango)
+    public ReporteOcupacionDTO ocupacion(LocalDate desde, LocalDate hasta, String agrupacion,
+                                         Long espacioId, Long tipoEspacioId) {
+        if (desde == null || hasta == null || hasta.isBefore(desde)) {
+            throw new IllegalArgumentException("Rango de fechas inválido");
+        }
+        String agrupar = agrupacion == null ? "espacio" : agrupacion.toLowerCase();
+        if (!AGRUPACIONES.contains(agrupar)) {
+            throw new IllegalArgumentException("Agrupación inválida: " + agrupacion);
+        }
+
+        // espacioId -> [id, nombre, tipoId, tipoNombre]
+        Map<Long, Object[]> espacios = new HashMap<>();
+        for (Object[] e : espacioRepository.findNombresYTipos()) {
+            espacios.put((Long) e[0], e);
+        }
+
+        Map<String, Acumulado> grupos = new HashMap<>();
+        ocupacionRollup.paraCadaBucket(desde, hasta, (eId, fecha, hora, minutos) -> {
+            Object[] e = espacios.get(eId);
+            Long tipoId = e != null ? (Long) e[2] : null;
+            if (espacioId != null && !espacioId.equals(eId)) return;
+            if (tipoEspacioId != null && !tipoEspacioId.equals(tipoId)) return;
+
+            String clave;
+            String nombre;
+            switch (agrupar) {
+                case "espacio" -> {
+                    clave = String.valueOf(eId);
+                    nombre = e != null ? (String) e[1] : null;
+                }
+                case "tipo" -> {
+                    clave = String.valueOf(tipoId);
+                    nombre = e != null ? (String) e[3] : null;
+                }
+                case "dia" -> {
+                    clave = fecha.toString();
+                    nombre = fecha.getDayOfWeek().getDisplayName(TextStyle.FULL, ES);
+                }
+                default -> {
+                    clave = String.format("%02d:00", hora);
+                    nombre = clave;
+                }
+            }
+            grupos.computeIfAbsent(clave, k -> new Acumulado(nombre)).minutos += minutos;
+        });
+
+        List<OcupacionDTO> filas = new ArrayList<>(grupos.size());
+        long total = 0;
+        for (Map.Entry<String, Acumulado> g : grupos.entrySet()) {
+            filas.add(new OcupacionDTO(g.getKey(), g.getValue().nombre, horas(g.getValue().minutos)));
+            total += g.getValue().minutos;
+        }
+        // Espacios y tipos: más ocupados primero; días y horas: en orden
+        if (agrupar.equals("espacio") || agrupar.equals("tipo")) {
+            filas.sort(Comparator.comparing(OcupacionDTO::getHorasReservadas).reversed());
+        } else {
+            filas.sort(Comparator.comparing(OcupacionDTO::getClave));
+        }
+
+        return ReporteOcupacionDTO.builder()
+                .agrupacion(agrupar)
+                .desde(desde)
+                .hasta(hasta)
+                .totalHoras(horas(total))
+                .filas(filas)
+                .build();
+    }
+
+    private static double horas(long minutos) {
+        return Math.round(minutos / 60.0 * 100) / 100.0;
+    }
+}
@@ -0,0 +1,15 @@
+package com.TecUnify.backend_user.service;
+
+import com.TecUnify.backend_user.model.EstadoReserva;
+
+import java.time.LocalDate;
+
+/**
+ * Publicado por ReservaService después de confirmar un alta, cancelación,
+ * cambio de estado o borrado. anterior es null en un alta y actual es null
+ * en un borrado. DisponibilidadIndex lo publica sin reservaId ni estados
+ * cuando una recarga encuentra cambios hechos fuera de esta instancia.
+ */
+public record ReservaCambiadaEvent(Long reservaId, Long espacioId, LocalDate fecha,
+                                   EstadoReserva anterior, EstadoReserva actual) {
+}
@@ -0,0 +1,64 @@
+package com.TecUnify.backend_user.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Bloqueos por franjas (striping) para serializar solo las operaciones
+ * sobre el mismo (espacioId, fechaReserva). Reservas de otros espacios
+ * o fechas caen, salvo colisión de hash, en bloqueos distintos.
+ */
+@Component
+public class ReservaLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public ReservaLocks(@Value("${app.reservas.lock-stripes:256}") int cantidad) {
+        int n = Integer.highestOneBit(Math.max(1, cantidad - 1)) << 1;
+        this.stripes = new ReentrantLock[n];
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = n - 1;
+    }
+
+    public <T> T conBloqueo(Long espacioId, LocalDate fecha, Supplier<T> accion) {
+        ReentrantLock lock = stripes[indice(espacioId, fecha)];
+        lock.lock();
+        try {
+            return accion.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Toma en orden ascendente los bloqueos de varias fechas de un espacio (evita interbloqueos)
+    public <T> T conBloqueos(Long espacioId, Collection<LocalDate> fechas, Supplier<T> accion) {
+        int[] indices = fechas.stream().mapToInt(f -> indice(espacioId, f)).distinct().sorted().toArray();
+        int tomados = 0;
+        try {
+            for (int i : indices) {
+                stripes[i].lock();
+                tomados++;
+            }
+            return accion.get();
+        } finally {
+            for (int j = tomados - 1; j >= 0; j--) {
+                stripes[indices[j]].unlock();
+            }
+        }
+    }
+
+    int indice(Long espacioId, LocalDate fecha) {
+        int h = Objects.hash(espacioId, fecha);
+        h ^= (h >>> 16);
+        return h & mask;
+    }
+}
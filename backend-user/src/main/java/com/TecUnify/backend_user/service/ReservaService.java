@@ -1,94 +1,426 @@
 package com.TecUnify.backend_user.service;
 
+import com.TecUnify.backend_user.dto.DisponibilidadDTO;
 import com.TecUnify.backend_user.dto.ReservaDTO;
+import com.TecUnify.backend_user.dto.ReservaPaginaDTO;
+import com.TecUnify.backend_user.dto.ReservaRecurrenteDTO;
+import com.TecUnify.backend_user.dto.ReservaRecurrenteResultadoDTO;
 import com.TecUnify.backend_user.model.*;
 import com.TecUnify.backend_user.repository.*;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ReservaService {
 
+    private static final String CONFLICTO = "El espacio ya está reservado en ese horario";
+    private static final String MODIFICADA = "La reserva fue modificada por otro usuario; recárguela e intente de nuevo";
+
+    // SQLState de PostgreSQL: exclusion_violation y check_violation
+    private static final String EXCLUSION_VIOLADA = "23P01";
+    private static final String CHECK_VIOLADO = "23514";
+    private static final String RESTRICCION_SOLAPAMIENTO = "ex_reserva_espacio_solapada";
+
     private final ReservaRepository reservaRepository;
     private final UserRepository userRepository;
     private final EspacioRepository espacioRepository;
+    private final DisponibilidadIndex disponibilidadIndex;
+    private final OcupacionRollup ocupacionRollup;
+    private final ApplicationEventPublisher eventos;
+    private final ReservaLocks reservaLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxReservas outbox;
+
+    @Value("${app.reservas.max-ocurrencias:200}")
+    private int maxOcurrencias;
 
+    @Value("${app.reservas.max-dias-regla:366}")
+    private int maxDiasRegla;
+
+    // Lecturas: proyección directa a DTO (sin entidades gestionadas ni proxies)
     public List<ReservaDTO> getByUserId(Long userId) {
-        return reservaRepository.findByUsuarioId(userId)
-                .stream()
-                .map(ReservaDTO::fromEntity)
-                .collect(Collectors.toList());
+        return reservaRepository.findDTOByUsuarioId(userId);
+    }
+
+    // Listado admin paginado por cursor (keyset)
+    public ReservaPaginaDTO getPagina(ReservaFiltro filtro, String cursor, int limite) {
+        LocalDate cursorFecha = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+                cursorFecha = LocalDate.parse(partes[0]);
+                cursorId = Long.parseLong(partes[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+        }
+
+        // Se pide un elemento extra para saber si existe una página siguiente
+        List<ReservaDTO> filas = reservaRepository.findPagina(filtro, cursorFecha, cursorId, limite + 1);
+        boolean hayMas = filas.size() > limite;
+        List<ReservaDTO> pagina = hayMas ? filas.subList(0, limite) : filas;
+
+        String siguiente = null;
+        if (hayMas) {
+            ReservaDTO ultima = pagina.get(pagina.size() - 1);
+            siguiente = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    (ultima.getFechaReserva() + ":" + ultima.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+        return ReservaPaginaDTO.builder()
+                .items(pagina)
+                .nextCursor(siguiente)
+                .build();
     }
 
-    public List<ReservaDTO> getAll() {
-        return reservaRepository.findAll()
-                .stream()
-                .map(ReservaDTO::fromEntity)
-                .collect(Collectors.toList());
+    // Verificar disponibilidad (índice en memoria)
+    @Timed(value = "disponibilidad.verificar", description = "POST /api/reservas/verificar-disponibilidad")
+    public DisponibilidadDTO verificarDisponibilidad(ReservaDTO dto) {
+        validarHorario(dto);
+        List<Long> conflictos = disponibilidadIndex.conflictos(
+                dto.getEspacioId(), dto.getFechaReserva(), dto.getHoraInicio(), dto.getHoraFin());
+        return DisponibilidadDTO.builder()
+                .espacioId(dto.getEspacioId())
+                .fechaReserva(dto.getFechaReserva())
+                .horaInicio(dto.getHoraInicio())
+                .horaFin(dto.getHoraFin())
+                .disponible(conflictos.isEmpty())
+                .conflictos(conflictos)
+                .build();
     }
 
+    @Timed(value = "reservas.crear", description = "Creación de una reserva, incluida la espera del bloqueo")
     public Reserva create(ReservaDTO dto) {
 
+        validarHorario(dto);
+
         User user = userRepository.findById(dto.getUserId()).orElse(null);
         Espacio espacio = espacioRepository.findById(dto.getEspacioId()).orElse(null);
         if (user == null || espacio == null) return null;
 
-        Reserva r = new Reserva();
-        r.setUsuario(user);
-        r.setEspacio(espacio);
-        r.setFechaReserva(dto.getFechaReserva());
-        r.setHoraInicio(dto.getHoraInicio());
-        r.setHoraFin(dto.getHoraFin());
-        r.setMotivo(dto.getMotivo());
-        r.setObservaciones(dto.getObservaciones());
+        Reserva r = nuevaReserva(user, espacio, dto.getFechaReserva(), dto.getHoraInicio(), dto.getHoraFin(),
+                dto.getMotivo(), dto.getObservaciones(), dto.getPrecioTotal());
 
-        // ✔ Estado siempre inicia en PENDIENTE
-        r.setEstado(EstadoReserva.PENDIENTE);
+        // Solo se serializan las reservas del mismo espacio y fecha; la
+        // restricción de exclusión en la BD cubre a otras instancias.
+        return reservaLocks.conBloqueo(dto.getEspacioId(), dto.getFechaReserva(), () -> {
+            if (!disponibilidadIndex.estaDisponible(
+                    dto.getEspacioId(), dto.getFechaReserva(), dto.getHoraInicio(), dto.getHoraFin())) {
+                throw new IllegalStateException(CONFLICTO);
+            }
+            Reserva guardada = guardar(r, null);
+            disponibilidadIndex.registrar(guardada);
+            ocupacionRollup.sumar(guardada);
+            publicar(guardada, null);
+            return guardada;
+        });
+    }
 
-        // Precio
-        if (dto.getPrecioTotal() != null) {
-            r.setPrecioTotal(BigDecimal.valueOf(dto.getPrecioTotal()));
+    // ============================
+    // RESERVAS RECURRENTES / MASIVAS
+    // ============================
+    @Timed(value = "reservas.crear.recurrente")
+    public ReservaRecurrenteResultadoDTO createRecurrente(ReservaRecurrenteDTO dto) {
+
+        if (dto.getEspacioId() == null || dto.getHoraInicio() == null || dto.getHoraFin() == null
+                || !dto.getHoraFin().isAfter(dto.getHoraInicio())) {
+            throw new IllegalArgumentException("Horario de reserva inválido");
+        }
+        TreeSet<LocalDate> fechas = expandirFechas(dto);
+
+        User user = userRepository.findById(dto.getUserId()).orElse(null);
+        Espacio espacio = espacioRepository.findById(dto.getEspacioId()).orElse(null);
+        if (user == null || espacio == null) return null;
+
+        // Una sola pasada: se bloquean todas las fechas y se verifican contra el índice
+        return reservaLocks.conBloqueos(dto.getEspacioId(), fechas, () -> {
+            List<LocalDate> conflictos = new ArrayList<>();
+            List<Reserva> nuevas = new ArrayList<>();
+            for (LocalDate fecha : fechas) {
+                if (disponibilidadIndex.estaDisponible(dto.getEspacioId(), fecha, dto.getHoraInicio(), dto.getHoraFin())) {
+                    nuevas.add(nuevaReserva(user, espacio, fecha, dto.getHoraInicio(), dto.getHoraFin(),
+                            dto.getMotivo(), dto.getObservaciones(), dto.getPrecioTotal()));
+                } else {
+                    conflictos.add(fecha);
+                }
+            }
+            if (!conflictos.isEmpty() && !Boolean.TRUE.equals(dto.getOmitirConflictos())) {
+                nuevas.clear();
+            }
+
+            List<Reserva> guardadas = nuevas.isEmpty() ? List.of() : guardarTodas(nuevas);
+            guardadas.forEach(disponibilidadIndex::registrar);
+            guardadas.forEach(ocupacionRollup::sumar);
+            guardadas.forEach(g -> publicar(g, null));
+            return ReservaRecurrenteResultadoDTO.builder()
+                    .creadas(guardadas.stream().map(ReservaDTO::fromEntity).collect(Collectors.toList()))
+                    .conflictos(conflictos)
+                    .build();
+        });
+    }
+
+    // Fechas de la regla de recurrencia más las fechas sueltas, ordenadas y sin duplicados
+    private TreeSet<LocalDate> expandirFechas(ReservaRecurrenteDTO dto) {
+        TreeSet<LocalDate> fechas = new TreeSet<>();
+        if (dto.getFechas() != null) {
+            if (dto.getFechas().size() > maxOcurrencias) {
+                throw new IllegalArgumentException("Máximo " + maxOcurrencias + " reservas por solicitud");
+            }
+            if (dto.getFechas().contains(null)) {
+                throw new IllegalArgumentException("Fecha inválida en la lista de fechas");
+            }
+            fechas.addAll(dto.getFechas());
+        }
+        if (dto.getFechaInicio() != null && dto.getFechaFin() != null
+                && dto.getDiasSemana() != null && !dto.getDiasSemana().isEmpty()) {
+            // Se valida antes de recorrer: días fuera de 0-6 nunca coinciden y el
+            // recorrido llegaría hasta fechaFin sin cortar por maxOcurrencias
+            for (Integer dia : dto.getDiasSemana()) {
+                if (dia == null || dia < 0 || dia > 6) {
+                    throw new IllegalArgumentException("diasSemana admite valores de 0 (Domingo) a 6 (Sábado)");
+                }
+            }
+            if (ChronoUnit.DAYS.between(dto.getFechaInicio(), dto.getFechaFin()) > maxDiasRegla) {
+                throw new IllegalArgumentException("La regla abarca como máximo " + maxDiasRegla + " días");
+            }
+            int intervalo = dto.getIntervaloSemanas() != null && dto.getIntervaloSemanas() > 0
+                    ? dto.getIntervaloSemanas() : 1;
+            LocalDate semanaBase = inicioSemana(dto.getFechaInicio());
+            for (LocalDate f = dto.getFechaInicio(); !f.isAfter(dto.getFechaFin()); f = f.plusDays(1)) {
+                long semana = ChronoUnit.DAYS.between(semanaBase, inicioSemana(f)) / 7;
+                if (semana % intervalo == 0 && dto.getDiasSemana().contains(f.getDayOfWeek().getValue() % 7)) {
+                    fechas.add(f);
+                    if (fechas.size() > maxOcurrencias) break;
+                }
+            }
+        }
+        if (fechas.isEmpty()) {
+            throw new IllegalArgumentException("La regla no genera ninguna fecha");
         }
+        if (fechas.size() > maxOcurrencias) {
+            throw new IllegalArgumentException("Máximo " + maxOcurrencias + " reservas por solicitud");
+        }
+        if (fechas.first().isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("No se puede reservar en fechas pasadas");
+        }
+        return fechas;
+    }
 
-        return reservaRepository.save(r);
+    // Semana de domingo a sábado, igual que diaSemana (0=Domingo)
+    private static LocalDate inicioSemana(LocalDate f) {
+        return f.minusDays(f.getDayOfWeek().getValue() % 7);
     }
 
     public Reserva getById(Long id) {
         return reservaRepository.findById(id).orElse(null);
     }
 
+    // Borra la reserva tal como se leyó: si otro cambio se adelantó (o ya no existe) no se
+    // borra ni se publica nada y se lanza IllegalStateException
     public void delete(Long id) {
-        reservaRepository.deleteById(id);
+        Reserva r = reservaRepository.findById(id).orElse(null);
+        if (r == null) return;
+        transactionTemplate.executeWithoutResult(status -> {
+            if (reservaRepository.eliminarSiVersion(id, r.getVersion()) == 0) {
+                throw new IllegalStateException(MODIFICADA);
+            }
+            outbox.registrarEliminada(r);
+        });
+        disponibilidadIndex.quitar(id);
+        ocupacionRollup.restar(r);
+        eventos.publishEvent(new ReservaCambiadaEvent(id, r.getEspacio().getId(), r.getFechaReserva(),
+                r.getEstado(), null));
     }
     public void cancelarReserva(Long id) {
         Reserva r = reservaRepository.findById(id).orElse(null);
         if (r == null) return;
 
+        EstadoReserva anterior = r.getEstado();
         r.setEstado(EstadoReserva.CANCELADA);  // ← usa tu ENUM
-        reservaRepository.save(r);
+        guardar(r, anterior);
+        disponibilidadIndex.quitar(id);
+        ocupacionRollup.cambioEstado(anterior, r);
+        publicar(r, anterior);
     }
 
 
     // ============================
     // CAMBIAR ESTADO (ADMIN)
     // ============================
-    public Reserva updateEstado(Long id, String estado) {
+    // versionEsperada (opcional): la versión que vio el cliente; si otro cambio
+    // se adelantó, se rechaza en vez de pisarlo
+    public Reserva updateEstado(Long id, String estado, Long versionEsperada) {
 
         Reserva r = reservaRepository.findById(id).orElse(null);
         if (r == null) return null;
+        if (versionEsperada != null && !versionEsperada.equals(r.getVersion())) {
+            throw new IllegalStateException(MODIFICADA);
+        }
 
+        EstadoReserva nuevo;
         try {
-            EstadoReserva nuevo = EstadoReserva.valueOf(estado.toUpperCase());  // ✔ String → ENUM
-            r.setEstado(nuevo);
+            nuevo = EstadoReserva.valueOf(estado.toUpperCase());  // ✔ String → ENUM
         } catch (IllegalArgumentException e) {
             return null; // Estado inválido
         }
 
-        return reservaRepository.save(r);
+        return reservaLocks.conBloqueo(r.getEspacio().getId(), r.getFechaReserva(), () -> {
+            // Reactivar una reserva cancelada exige que el horario siga libre
+            if (r.getEstado() == EstadoReserva.CANCELADA && nuevo != EstadoReserva.CANCELADA
+                    && !disponibilidadIndex.estaDisponible(
+                    r.getEspacio().getId(), r.getFechaReserva(), r.getHoraInicio(), r.getHoraFin())) {
+                throw new IllegalStateException(CONFLICTO);
+            }
+            EstadoReserva anterior = r.getEstado();
+            r.setEstado(nuevo);
+            Reserva guardada = guardar(r, anterior);
+            disponibilidadIndex.registrar(guardada);
+            ocupacionRollup.cambioEstado(anterior, guardada);
+            publicar(guardada, anterior);
+            return guardada;
+        });
+    }
+
+    // Crea la reserva PENDIENTE de una entrada de la lista de espera si su horario quedó libre
+    // (null si no). alGuardar corre en la misma transacción que el INSERT: si falla (p. ej. la
+    // entrada ya fue promovida por otra instancia) no queda ni la reserva ni la marca.
+    public Reserva crearDesdeEspera(ListaEspera espera, Consumer<Reserva> alGuardar) {
+        Long espacioId = espera.getEspacio().getId();
+        LocalDate fecha = espera.getFechaReserva();
+        return reservaLocks.conBloqueo(espacioId, fecha, () -> {
+            if (!disponibilidadIndex.estaDisponible(espacioId, fecha, espera.getHoraInicio(), espera.getHoraFin())) {
+                return null;
+            }
+            Reserva r = nuevaReserva(espera.getUsuario(), espera.getEspacio(), fecha, espera.getHoraInicio(),
+                    espera.getHoraFin(), espera.getMotivo(), null,
+                    espera.getPrecioTotal() != null ? espera.getPrecioTotal().doubleValue() : null);
+            Reserva guardada;
+            try {
+                guardada = transactionTemplate.execute(status -> {
+                    Reserva g = reservaRepository.saveAndFlush(r);
+                    alGuardar.accept(g);
+                    outbox.registrar(g, null);
+                    return g;
+                });
+            } catch (DataIntegrityViolationException | OptimisticLockingFailureException e) {
+                return null;
+            }
+            disponibilidadIndex.registrar(guardada);
+            ocupacionRollup.sumar(guardada);
+            publicar(guardada, null);
+            return guardada;
+        });
+    }
+
+    private void publicar(Reserva r, EstadoReserva anterior) {
+        eventos.publishEvent(new ReservaCambiadaEvent(r.getId(), r.getEspacio().getId(), r.getFechaReserva(),
+                anterior, r.getEstado()));
+    }
+
+    // Guarda en su propia transacción (confirmada antes de liberar el bloqueo), junto con
+    // su evento del outbox; el UPDATE lleva la versión leída, así que un cambio
+    // concurrente se detecta aquí
+    private Reserva guardar(Reserva r, EstadoReserva anterior) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Reserva g = reservaRepository.saveAndFlush(r);
+                outbox.registrar(g, anterior);
+                return g;
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw traducir(e);
+        } catch (OptimisticLockingFailureException e) {
+            throw new IllegalStateException(MODIFICADA);
+        }
+    }
+
+    // Inserta en una sola transacción; con la secuencia en pool Hibernate agrupa los INSERT en lotes
+    private List<Reserva> guardarTodas(List<Reserva> nuevas) {
+        try {
+            return transactionTemplate.execute(status -> {
+                List<Reserva> guardadas = reservaRepository.saveAll(nuevas);
+                reservaRepository.flush();
+                outbox.registrarCreadas(guardadas);
+                return guardadas;
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw traducir(e);
+        }
+    }
+
+    // Solo la restricción de exclusión (ex_reserva_espacio_solapada) es un choque de horarios (409);
+    // un CHECK violado es un dato inválido (400) y el resto (NOT NULL, FK) sigue como error interno
+    private static RuntimeException traducir(DataIntegrityViolationException e) {
+        String sqlState = null;
+        String restriccion = null;
+        for (Throwable t = e; t != null && t.getCause() != t; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException cve && restriccion == null) {
+                restriccion = cve.getConstraintName();
+            }
+            if (t instanceof SQLException sql && sqlState == null) {
+                sqlState = sql.getSQLState();
+            }
+        }
+        if (EXCLUSION_VIOLADA.equals(sqlState) || RESTRICCION_SOLAPAMIENTO.equals(restriccion)) {
+            return new IllegalStateException(CONFLICTO);
+        }
+        if (CHECK_VIOLADO.equals(sqlState)) {
+            if ("chk_fecha_futura".equals(restriccion)) {
+                return new IllegalArgumentException("No se puede reservar en fechas pasadas");
+            }
+            return new IllegalArgumentException("Datos de reserva inválidos"
+                    + (restriccion != null ? " (" + restriccion + ")" : ""));
+        }
+        return e;
+    }
+
+    private Reserva nuevaReserva(User user, Espacio espacio, LocalDate fecha, LocalTime horaInicio,
+                                 LocalTime horaFin, String motivo, String observaciones, Double precioTotal) {
+        Reserva r = new Reserva();
+        r.setUsuario(user);
+        r.setEspacio(espacio);
+        r.setFechaReserva(fecha);
+        r.setHoraInicio(horaInicio);
+        r.setHoraFin(horaFin);
+        r.setMotivo(motivo);
+        r.setObservaciones(observaciones);
+
+        // ✔ Estado siempre inicia en PENDIENTE
+        r.setEstado(EstadoReserva.PENDIENTE);
+
+        // Precio
+        if (precioTotal != null) {
+            r.setPrecioTotal(BigDecimal.valueOf(precioTotal));
+        }
+        return r;
+    }
+
+    private void validarHorario(ReservaDTO dto) {
+        if (dto.getEspacioId() == null || dto.getFechaReserva() == null
+                || dto.getHoraInicio() == null || dto.getHoraFin() == null
+                || !dto.getHoraFin().isAfter(dto.getHoraInicio())) {
+            throw new IllegalArgumentException("Horario de reserva inválido");
+        }
     }
 }
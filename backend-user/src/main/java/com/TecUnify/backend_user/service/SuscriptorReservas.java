@@ -0,0 +1,13 @@
+package com.TecUnify.backend_user.service;
+
+/**
+ * Consumidor de los eventos del outbox de reservas (cualquier bean que lo
+ * implemente). Corre en el hilo del relay, fuera de los requests de reserva.
+ * Recibe cada evento al menos una vez y, para una misma reserva, en orden;
+ * debe ser idempotente y rápido. Si lanza una excepción el evento se
+ * reintenta con backoff y los siguientes de esa reserva esperan.
+ */
+public interface SuscriptorReservas {
+
+    void recibir(EventoReserva evento);
+}
@@ -1,8 +1,10 @@
 package com.TecUnify.backend_user.service;
 
-import com.TecUnify.backend_user.model.TipoEspacio;
+import com.TecUnify.backend_user.config.CacheConfig;
+import com.TecUnify.backend_user.dto.TipoEspacioDTO;
 import com.TecUnify.backend_user.repository.TipoEspacioRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import java.util.List;
 
@@ -11,12 +13,14 @@ import java.util.List;
 public class TipoEspacioService {
     private final TipoEspacioRepository tipoEspacioRepository;
 
-    public List<TipoEspacio> getAllTiposActivos() {
-        return tipoEspacioRepository.findByActivoTrue();
+    @Cacheable(CacheConfig.TIPOS_ESPACIO)
+    public List<TipoEspacioDTO> getAllTiposActivos() {
+        return tipoEspacioRepository.findDTOByActivoTrue();
     }
 
-    public TipoEspacio getTipoById(Long id) {
-        return tipoEspacioRepository.findById(id)
+    @Cacheable(value = CacheConfig.TIPO_ESPACIO, key = "#id")
+    public TipoEspacioDTO getTipoById(Long id) {
+        return tipoEspacioRepository.findDTOById(id)
                 .orElseThrow(() -> new RuntimeException("Tipo de espacio no encontrado"));
     }
 }
@@ -1,5 +1,6 @@
 package com.TecUnify.backend_user.service;
 
+import com.TecUnify.backend_user.dto.IdentidadUsuario;
 import com.TecUnify.backend_user.dto.UserDTO;
 import com.TecUnify.backend_user.model.User;
 import com.TecUnify.backend_user.repository.UserRepository;
@@ -7,13 +8,13 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
+    private final IdentidadCache identidadCache;
 
     // ==========================
     //  AUTH GOOGLE (ya tenías)
@@ -25,8 +26,9 @@ public class UserService {
         if (user != null) {
             if (user.getGoogleId() == null || user.getGoogleId().isEmpty()) {
                 user.setGoogleId(googleId);
-                userRepository.save(user);
+                user = userRepository.save(user);
             }
+            identidadCache.actualizar(user);
             return user;
         }
 
@@ -38,7 +40,9 @@ public class UserService {
         newUser.setRole(com.TecUnify.backend_user.model.Role.USER);
         newUser.setActive(true);
 
-        return userRepository.save(newUser);
+        User guardado = userRepository.save(newUser);
+        identidadCache.actualizar(guardado);
+        return guardado;
     }
 
     // ==========================
@@ -46,9 +50,7 @@ public class UserService {
     // ==========================
 
     public List<UserDTO> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(UserDTO::fromEntity)
-                .collect(Collectors.toList());
+        return userRepository.findAllDTO();
     }
 
     public UserDTO getUserById(Long id) {
@@ -67,12 +69,17 @@ public class UserService {
             user.setActive(details.getActive());
             user.setRole(details.getRole());
 
-            return UserDTO.fromEntity(userRepository.save(user));
+            User guardado = userRepository.save(user);
+            identidadCache.actualizar(guardado);
+            return UserDTO.fromEntity(guardado);
         }).orElse(null);
     }
 
     public void deleteUser(Long id) {
-        userRepository.findById(id).ifPresent(userRepository::delete);
+        userRepository.findById(id).ifPresent(user -> {
+            userRepository.delete(user);
+            identidadCache.invalidar(user.getEmail());
+        });
     }
 
     // ==========================
@@ -82,4 +89,9 @@ public class UserService {
     public User findByEmail(String email) {
         return userRepository.findByEmail(email).orElse(null);
     }
+
+    // Identidad (id, rol, activo) desde caché: evita cargar User en cada request
+    public IdentidadUsuario findIdentidadByEmail(String email) {
+        return identidadCache.porEmail(email);
+    }
 }
@@ -0,0 +1,142 @@
+package com.TecUnify.backend_user.service;
+
+import com.TecUnify.backend_user.model.EstadoReserva;
+import com.TecUnify.backend_user.repository.ReservaRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cierra periódicamente las reservas cuyo horario ya terminó:
+ * CONFIRMADA pasa a COMPLETADA y PENDIENTE (nunca confirmada) a CANCELADA.
+ * Trabaja por lotes de ids con un UPDATE en bloque por lote, sin cargar
+ * entidades; cada lote va en su propia transacción junto con sus eventos del
+ * outbox. Después ajusta el índice de disponibilidad, el rollup de ocupación
+ * y avisa a los suscriptores.
+ */
+@Component
+public class VencimientoReservas implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(VencimientoReservas.class);
+
+    private final ReservaRepository reservaRepository;
+    private final DisponibilidadIndex disponibilidadIndex;
+    private final OcupacionRollup ocupacionRollup;
+    private final ApplicationEventPublisher eventos;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxReservas outbox;
+    private final int tamanoLote;
+    private final int maxLotes;
+
+    // Evita dos pasadas superpuestas en la misma instancia
+    private final AtomicBoolean enCurso = new AtomicBoolean();
+
+    private Counter completadas;
+    private Counter expiradas;
+
+    public VencimientoReservas(ReservaRepository reservaRepository,
+                               DisponibilidadIndex disponibilidadIndex,
+                               OcupacionRollup ocupacionRollup,
+                               ApplicationEventPublisher eventos,
+                               TransactionTemplate transactionTemplate,
+                               OutboxReservas outbox,
+                               @Value("${app.reservas.vencimiento.tamano-lote:500}") int tamanoLote,
+                               @Value("${app.reservas.vencimiento.max-lotes:200}") int maxLotes) {
+        this.reservaRepository = reservaRepository;
+        this.disponibilidadIndex = disponibilidadIndex;
+        this.ocupacionRollup = ocupacionRollup;
+        this.eventos = eventos;
+        this.transactionTemplate = transactionTemplate;
+        this.outbox = outbox;
+        this.tamanoLote = tamanoLote;
+        this.maxLotes = maxLotes;
+    }
+
+    @Scheduled(cron = "${app.reservas.vencimiento.cron:0 */5 * * * *}")
+    @Timed(value = "reservas.vencimiento", description = "Pasada del job de vencimiento de reservas")
+    public void ejecutar() {
+        if (!enCurso.compareAndSet(false, true)) return;
+        try {
+            LocalDateTime momento = LocalDateTime.now();
+            int aCompletada = procesar(EstadoReserva.CONFIRMADA, EstadoReserva.COMPLETADA, momento);
+            int aCancelada = procesar(EstadoReserva.PENDIENTE, EstadoReserva.CANCELADA, momento);
+            int franjas = disponibilidadIndex.purgarAntesDe(momento.toLocalDate());
+            if (aCompletada + aCancelada + franjas > 0) {
+                logger.info("Vencimiento de reservas: {} completadas, {} pendientes expiradas, {} franjas purgadas del índice",
+                        aCompletada, aCancelada, franjas);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Falló el vencimiento de reservas ({}); se reintenta en la próxima pasada", e.getMessage());
+        } finally {
+            enCurso.set(false);
+        }
+    }
+
+    // Recorre por id las reservas vencidas en el estado indicado, de a un lote por transacción
+    private int procesar(EstadoReserva actual, EstadoReserva nuevo, LocalDateTime momento) {
+        LocalDate hoy = momento.toLocalDate();
+        LocalTime ahora = momento.toLocalTime();
+        Counter contador = nuevo == EstadoReserva.COMPLETADA ? completadas : expiradas;
+        long desdeId = 0;
+        int total = 0;
+        for (int lote = 0; lote < maxLotes; lote++) {
+            long cursor = desdeId;
+            List<Object[]> filas = transactionTemplate.execute(status -> {
+                List<Object[]> vencidas = reservaRepository.findVencidas(
+                        actual, hoy, ahora, cursor, PageRequest.of(0, tamanoLote));
+                if (!vencidas.isEmpty()) {
+                    List<Long> ids = new ArrayList<>(vencidas.size());
+                    for (Object[] f : vencidas) ids.add((Long) f[0]);
+                    reservaRepository.actualizarEstado(ids, actual, nuevo, momento);
+                    outbox.registrarCambios(vencidas, actual, nuevo);
+                }
+                return vencidas;
+            });
+            if (filas == null || filas.isEmpty()) break;
+
+            for (Object[] f : filas) {
+                Long id = (Long) f[0];
+                Long espacioId = (Long) f[1];
+                LocalDate fecha = (LocalDate) f[2];
+                if (nuevo == EstadoReserva.CANCELADA) {
+                    disponibilidadIndex.quitar(id);
+                    ocupacionRollup.restar(espacioId, fecha, (LocalTime) f[3], (LocalTime) f[4]);
+                }
+                eventos.publishEvent(new ReservaCambiadaEvent(id, espacioId, fecha, actual, nuevo));
+            }
+            total += filas.size();
+            if (contador != null) contador.increment(filas.size());
+            desdeId = (Long) filas.get(filas.size() - 1)[0];
+            if (filas.size() < tamanoLote) break;
+        }
+        return total;
+    }
+
+    // Filas cerradas por el job; su tasa es el throughput de cada transición
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        completadas = Counter.builder("reservas.vencimiento.filas")
+                .tag("transicion", "CONFIRMADA-COMPLETADA")
+                .description("Reservas cerradas por el job de vencimiento")
+                .register(registry);
+        expiradas = Counter.builder("reservas.vencimiento.filas")
+                .tag("transicion", "PENDIENTE-CANCELADA")
+                .description("Reservas cerradas por el job de vencimiento")
+                .register(registry);
+    }
+}
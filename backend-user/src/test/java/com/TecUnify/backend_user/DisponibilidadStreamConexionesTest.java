@@ -0,0 +1,81 @@
+package com.TecUnify.backend_user;
+
+import com.TecUnify.backend_user.model.Espacio;
+import com.TecUnify.backend_user.repository.EspacioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Streams SSE abiertos no deben retener conexiones del pool (open-in-view, ver JpaWebConfig).
+// Con el stream dentro de open-in-view, el tercero ya no consigue conexión y falla con 500
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.cache.type=none",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.minimum-idle=1",
+        "spring.datasource.hikari.connection-timeout=2000",
+        "app.datasource.limite-concurrencia=2",
+        "spring.boot.admin.client.enabled=false"
+})
+class DisponibilidadStreamConexionesTest {
+
+    private static final int STREAMS = 6;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EspacioRepository espacioRepository;
+
+    @Test
+    void masStreamsQueConexionesNoBloqueanElResto() throws Exception {
+        List<Long> espacios = espacioRepository.findAll().stream().map(Espacio::getId).toList();
+        assertThat(espacios).hasSizeGreaterThanOrEqualTo(STREAMS);
+        LocalDate manana = LocalDate.now().plusDays(1);
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+        List<InputStream> abiertos = new ArrayList<>();
+        try {
+            // Un espacio distinto por stream y sin caché de Spring: cada suscripción consulta la BD
+            // (getById y la apertura semanal que compila HorarioSlotEngine por espacio)
+            for (int i = 0; i < STREAMS; i++) {
+                HttpResponse<InputStream> r = http.send(HttpRequest.newBuilder(
+                                URI.create(base() + "/api/espacios/" + espacios.get(i) + "/disponibilidad/stream?fecha=" + manana))
+                        .header("Accept", "text/event-stream")
+                        .timeout(Duration.ofSeconds(10))
+                        .build(), HttpResponse.BodyHandlers.ofInputStream());
+                assertThat(r.statusCode()).isEqualTo(200);
+                abiertos.add(r.body());
+            }
+
+            HttpResponse<String> horarios = http.send(HttpRequest.newBuilder(
+                            URI.create(base() + "/api/espacios/" + espacios.get(STREAMS - 1) + "/horarios-disponibles?fecha=" + manana))
+                    .timeout(Duration.ofSeconds(10))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(horarios.statusCode()).isEqualTo(200);
+        } finally {
+            for (InputStream in : abiertos) {
+                in.close();
+            }
+        }
+    }
+
+    private String base() {
+        return "http://localhost:" + port;
+    }
+}
@@ -0,0 +1,101 @@
+package com.TecUnify.backend_user.service;
+
+import com.TecUnify.backend_user.dto.EspacioDTO;
+import com.TecUnify.backend_user.dto.MotivoReservaDTO;
+import com.TecUnify.backend_user.dto.TipoEspacioDTO;
+import com.TecUnify.backend_user.repository.EspacioRepository;
+import com.TecUnify.backend_user.repository.MotivoReservaRepository;
+import com.TecUnify.backend_user.repository.TipoEspacioRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogoBootstrapTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private EspacioRepository espacioRepository;
+    private CatalogoBootstrap catalogoBootstrap;
+
+    @BeforeEach
+    void setUp() {
+        espacioRepository = mock(EspacioRepository.class);
+        TipoEspacioRepository tipoEspacioRepository = mock(TipoEspacioRepository.class);
+        MotivoReservaRepository motivoReservaRepository = mock(MotivoReservaRepository.class);
+
+        List<EspacioDTO> espacios = new ArrayList<>();
+        for (long i = 1; i <= 300; i++) {
+            espacios.add(EspacioDTO.builder().id(i).nombre("Laboratorio " + i)
+                    .descripcion("Equipado con proyector y pizarra").capacidad(30).activo(true).build());
+        }
+        when(espacioRepository.findDTOByActivoTrue()).thenReturn(espacios);
+        when(tipoEspacioRepository.findDTOByActivoTrue()).thenReturn(
+                List.of(TipoEspacioDTO.builder().id(1L).nombre("Laboratorio").build()));
+        when(motivoReservaRepository.findDTOByActivoTrue()).thenReturn(
+                List.of(MotivoReservaDTO.builder().id(1L).nombre("Clase").build()));
+
+        catalogoBootstrap = new CatalogoBootstrap(espacioRepository, tipoEspacioRepository,
+                motivoReservaRepository, objectMapper);
+        catalogoBootstrap.reconstruir();
+    }
+
+    @Test
+    void respuestaGzipEmpalmadaEsIgualALaPlana() throws Exception {
+        CatalogoBootstrap.Catalogo catalogo = catalogoBootstrap.actual();
+        Map<String, Object> usuario = Map.of("id", 7, "email", "alumno@tecsup.edu.pe");
+        List<Map<String, Object>> reservas = List.of(Map.of("id", 1, "estado", "PENDIENTE"));
+
+        byte[] plana = catalogoBootstrap.respuesta(catalogo, null, usuario, reservas, false);
+        byte[] gzip = catalogoBootstrap.respuesta(catalogo, null, usuario, reservas, true);
+
+        assertThat(descomprimir(gzip)).isEqualTo(plana);
+        assertThat(gzip.length).isLessThan(plana.length);
+        JsonNode json = objectMapper.readTree(plana);
+        assertThat(json.get("catalogoVersion").asText()).isEqualTo(catalogo.version());
+        assertThat(json.get("catalogo").get("espacios")).hasSize(300);
+        assertThat(json.get("usuario").get("id").asInt()).isEqualTo(7);
+        assertThat(json.get("reservas")).hasSize(1);
+    }
+
+    @Test
+    void omiteElCatalogoSiElClienteTieneLaVersion() throws Exception {
+        CatalogoBootstrap.Catalogo catalogo = catalogoBootstrap.actual();
+
+        byte[] gzip = catalogoBootstrap.respuesta(catalogo, catalogo.version(), Map.of("id", 7), List.of(), true);
+
+        JsonNode json = objectMapper.readTree(descomprimir(gzip));
+        assertThat(json.get("catalogo").isNull()).isTrue();
+        assertThat(json.get("reservas")).isEmpty();
+    }
+
+    @Test
+    void catalogoGzipCompletoYVersionSoloCambiaConElContenido() throws Exception {
+        CatalogoBootstrap.Catalogo primero = catalogoBootstrap.actual();
+        assertThat(descomprimir(primero.gzip())).isEqualTo(primero.json());
+
+        catalogoBootstrap.reconstruir();
+        assertThat(catalogoBootstrap.actual()).isSameAs(primero);
+
+        when(espacioRepository.findDTOByActivoTrue()).thenReturn(
+                List.of(EspacioDTO.builder().id(1L).nombre("Auditorio").activo(true).build()));
+        catalogoBootstrap.reconstruir();
+        assertThat(catalogoBootstrap.actual().version()).isNotEqualTo(primero.version());
+    }
+
+    private static byte[] descomprimir(byte[] gzip) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return in.readAllBytes();
+        }
+    }
+}
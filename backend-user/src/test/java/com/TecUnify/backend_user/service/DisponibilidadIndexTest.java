@@ -0,0 +1,86 @@
+package com.TecUnify.backend_user.service;
+
+import com.TecUnify.backend_user.model.Espacio;
+import com.TecUnify.backend_user.model.EstadoReserva;
+import com.TecUnify.backend_user.model.Reserva;
+import com.TecUnify.backend_user.repository.ReservaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DisponibilidadIndexTest {
+
+    private static final LocalTime OCHO = LocalTime.of(8, 0);
+    private static final LocalTime DIEZ = LocalTime.of(10, 0);
+
+    private final LocalDate manana = LocalDate.now().plusDays(1);
+    private final List<ReservaCambiadaEvent> avisos = new ArrayList<>();
+    private ReservaRepository reservaRepository;
+    private DisponibilidadIndex index;
+
+    @BeforeEach
+    void setUp() {
+        reservaRepository = mock(ReservaRepository.class);
+        when(reservaRepository.findFranjasDesde(any(), any())).thenReturn(List.<Object[]>of(
+                new Object[]{1L, 5L, manana, OCHO, DIEZ}));
+        when(reservaRepository.findConflictos(any(), any(), any(), any(), any())).thenReturn(List.of(1L));
+        index = new DisponibilidadIndex(reservaRepository, e -> avisos.add((ReservaCambiadaEvent) e));
+        index.cargar();
+    }
+
+    @Test
+    void reservaCanceladaFueraDeLaInstanciaNoDaConflicto() {
+        assertThat(index.estaDisponible(5L, manana, OCHO, DIEZ)).isFalse();
+
+        // backend-admin la cancela: la BD ya no la devuelve
+        when(reservaRepository.findConflictos(any(), any(), any(), any(), any())).thenReturn(List.of());
+
+        assertThat(index.estaDisponible(5L, manana, OCHO, DIEZ)).isTrue();
+        assertThat(index.conflictos(5L, manana, OCHO, DIEZ)).isEmpty();
+    }
+
+    @Test
+    void recargaReemplazaLasFranjasYAvisaLasClavesCambiadas() {
+        // Cancelada desde backend-admin y otra creada allí en otro espacio
+        when(reservaRepository.findFranjasDesde(any(), any())).thenReturn(List.<Object[]>of(
+                new Object[]{2L, 6L, manana, OCHO, DIEZ}));
+
+        index.cargar();
+
+        List<int[]> franjas = new ArrayList<>();
+        index.paraCadaFranja(5L, manana, (inicio, fin) -> franjas.add(new int[]{inicio, fin}));
+        assertThat(franjas).isEmpty();
+        index.paraCadaFranja(6L, manana, (inicio, fin) -> franjas.add(new int[]{inicio, fin}));
+        assertThat(franjas).hasSize(1);
+        assertThat(avisos).extracting(ReservaCambiadaEvent::espacioId).containsExactlyInAnyOrder(5L, 6L);
+    }
+
+    @Test
+    void cambiosLocalesSobrevivenALaRecarga() {
+        Reserva nueva = Reserva.builder().id(3L).espacio(Espacio.builder().id(7L).build())
+                .fechaReserva(manana).horaInicio(OCHO).horaFin(DIEZ).estado(EstadoReserva.PENDIENTE).build();
+        // Se registra mientras la consulta de la recarga está en curso (y no la ve)
+        when(reservaRepository.findFranjasDesde(any(), any())).thenAnswer(inv -> {
+            index.registrar(nueva);
+            index.quitar(1L);
+            return List.<Object[]>of(new Object[]{1L, 5L, manana, OCHO, DIEZ});
+        });
+
+        index.cargar();
+
+        List<int[]> franjas = new ArrayList<>();
+        index.paraCadaFranja(7L, manana, (inicio, fin) -> franjas.add(new int[]{inicio, fin}));
+        assertThat(franjas).hasSize(1);
+        index.paraCadaFranja(5L, manana, (inicio, fin) -> franjas.add(new int[]{inicio, fin}));
+        assertThat(franjas).hasSize(1);
+    }
+}
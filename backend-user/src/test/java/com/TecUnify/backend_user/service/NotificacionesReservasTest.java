@@ -0,0 +1,197 @@
+package com.TecUnify.backend_user.service;
+
+import com.TecUnify.backend_user.model.Espacio;
+import com.TecUnify.backend_user.model.EstadoReserva;
+import com.TecUnify.backend_user.model.TipoEventoReserva;
+import com.TecUnify.backend_user.model.User;
+import com.TecUnify.backend_user.repository.EspacioRepository;
+import com.TecUnify.backend_user.repository.UserRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NotificacionesReservasTest {
+
+    @RegisterExtension
+    static GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private UserRepository userRepository;
+    private EspacioRepository espacioRepository;
+    private JavaMailSenderImpl mailSender;
+    private final List<NotificacionesReservas> creados = new ArrayList<>();
+    private long eventoIds;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        espacioRepository = mock(EspacioRepository.class);
+        when(userRepository.findAllById(any())).thenAnswer(inv -> {
+            List<User> usuarios = new ArrayList<>();
+            for (Long id : inv.<Iterable<Long>>getArgument(0)) {
+                usuarios.add(User.builder().id(id).email("u" + id + "@tecunify.local").firstName("U" + id).build());
+            }
+            return usuarios;
+        });
+        when(espacioRepository.findAllById(any())).thenAnswer(inv -> {
+            List<Espacio> espacios = new ArrayList<>();
+            for (Long id : inv.<Iterable<Long>>getArgument(0)) {
+                espacios.add(Espacio.builder().id(id).nombre("Lab " + id).build());
+            }
+            return espacios;
+        });
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        creados.forEach(NotificacionesReservas::cerrar);
+    }
+
+    @Test
+    void agrupaLosCambiosDelMismoDestinatario() throws Exception {
+        NotificacionesReservas notificaciones = servicio(mailSender, 100, 300);
+
+        notificaciones.recibir(evento(1L, 10L, EstadoReserva.CONFIRMADA));
+        notificaciones.recibir(evento(1L, 11L, EstadoReserva.CONFIRMADA));
+        notificaciones.recibir(evento(1L, 10L, EstadoReserva.CANCELADA)); // reemplaza al primero
+        notificaciones.recibir(evento(2L, 20L, EstadoReserva.CONFIRMADA));
+
+        assertThat(smtp.waitForIncomingEmail(5000, 2)).isTrue();
+        Thread.sleep(500);
+        MimeMessage[] recibidos = smtp.getReceivedMessages();
+        assertThat(recibidos).hasSize(2);
+
+        MimeMessage alPrimero = recibidos[0].getAllRecipients()[0].toString().startsWith("u1@")
+                ? recibidos[0] : recibidos[1];
+        assertThat(alPrimero.getSubject()).isEqualTo("Novedades de tus reservas (2)");
+        String cuerpo = GreenMailUtil.getBody(alPrimero);
+        assertThat(cuerpo).contains("cancelada").contains("confirmada");
+    }
+
+    @Test
+    void eventoRepetidoNoDuplicaElCorreo() {
+        NotificacionesReservas notificaciones = servicio(mailSender, 100, 100);
+        EventoReserva e = evento(1L, 10L, EstadoReserva.CONFIRMADA);
+
+        notificaciones.recibir(e);
+        notificaciones.recibir(e);
+
+        assertThat(smtp.waitForIncomingEmail(5000, 1)).isTrue();
+        assertThat(smtp.waitForIncomingEmail(500, 2)).isFalse();
+    }
+
+    @Test
+    void reintentaConBackoffSiElSmtpFalla() {
+        AtomicInteger llamadas = new AtomicInteger();
+        JavaMailSenderImpl inestable = new JavaMailSenderImpl() {
+            @Override
+            public void send(SimpleMailMessage... mensajes) {
+                if (llamadas.incrementAndGet() == 1) throw new MailSendException("SMTP caído");
+                super.send(mensajes);
+            }
+        };
+        inestable.setHost("localhost");
+        inestable.setPort(ServerSetupTest.SMTP.getPort());
+        NotificacionesReservas notificaciones = servicio(inestable, 100, 50);
+
+        notificaciones.recibir(evento(1L, 10L, EstadoReserva.CONFIRMADA));
+
+        assertThat(smtp.waitForIncomingEmail(5000, 1)).isTrue();
+        assertThat(llamadas.get()).isEqualTo(2);
+    }
+
+    @Test
+    void reintentoNoPisaUnEstadoMasNuevo() throws Exception {
+        AtomicReference<NotificacionesReservas> servicio = new AtomicReference<>();
+        AtomicInteger llamadas = new AtomicInteger();
+        JavaMailSenderImpl inestable = new JavaMailSenderImpl() {
+            @Override
+            public void send(SimpleMailMessage... mensajes) {
+                if (llamadas.incrementAndGet() == 1) {
+                    // Mientras falla el envío de CONFIRMADA, la reserva se cancela
+                    servicio.get().recibir(evento(1L, 10L, EstadoReserva.CANCELADA));
+                    throw new MailSendException("SMTP caído");
+                }
+                super.send(mensajes);
+            }
+        };
+        inestable.setHost("localhost");
+        inestable.setPort(ServerSetupTest.SMTP.getPort());
+        NotificacionesReservas notificaciones = servicio(inestable, 100, 50);
+        servicio.set(notificaciones);
+
+        notificaciones.recibir(evento(1L, 10L, EstadoReserva.CONFIRMADA));
+
+        assertThat(smtp.waitForIncomingEmail(5000, 1)).isTrue();
+        Thread.sleep(500);
+        MimeMessage[] recibidos = smtp.getReceivedMessages();
+        assertThat(recibidos).hasSize(1);
+        assertThat(recibidos[0].getSubject()).startsWith("Tu reserva fue cancelada");
+        assertThat(GreenMailUtil.getBody(recibidos[0])).doesNotContain("confirmada");
+    }
+
+    @Test
+    void colaLlenaRechazaParaQueElOutboxReintente() {
+        NotificacionesReservas notificaciones = servicio(mailSender, 1, 10_000);
+
+        notificaciones.recibir(evento(1L, 10L, EstadoReserva.CONFIRMADA));
+        notificaciones.recibir(evento(1L, 11L, EstadoReserva.CONFIRMADA)); // mismo destinatario: se agrupa
+
+        assertThatThrownBy(() -> notificaciones.recibir(evento(2L, 20L, EstadoReserva.CONFIRMADA)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void ignoraCreacionesYCierresDeReservasPasadas() {
+        NotificacionesReservas notificaciones = servicio(mailSender, 100, 50);
+        LocalDate ayer = LocalDate.now().minusDays(1);
+
+        notificaciones.recibir(new EventoReserva(++eventoIds, 10L, TipoEventoReserva.CREADA, 1L, 5L,
+                LocalDate.now().plusDays(1), LocalTime.of(8, 0), LocalTime.of(10, 0),
+                null, EstadoReserva.PENDIENTE, LocalDateTime.now()));
+        notificaciones.recibir(new EventoReserva(++eventoIds, 11L, TipoEventoReserva.ESTADO_CAMBIADO, 1L, 5L,
+                ayer, LocalTime.of(8, 0), LocalTime.of(10, 0),
+                EstadoReserva.PENDIENTE, EstadoReserva.CANCELADA, LocalDateTime.now()));
+
+        assertThat(smtp.waitForIncomingEmail(500, 1)).isFalse();
+    }
+
+    private NotificacionesReservas servicio(JavaMailSender sender, int capacidad, long ventanaMs) {
+        NotificacionesReservas n = new NotificacionesReservas(sender, userRepository, espacioRepository,
+                "reservas@tecunify.local", 2, capacidad, 50, ventanaMs, 3, 50, 1000);
+        creados.add(n);
+        return n;
+    }
+
+    private EventoReserva evento(Long usuarioId, Long reservaId, EstadoReserva estado) {
+        return new EventoReserva(++eventoIds, reservaId, TipoEventoReserva.ESTADO_CAMBIADO, usuarioId, 5L,
+                LocalDate.now().plusDays(1), LocalTime.of(8, 0), LocalTime.of(10, 0),
+                EstadoReserva.PENDIENTE, estado, LocalDateTime.now());
+    }
+}
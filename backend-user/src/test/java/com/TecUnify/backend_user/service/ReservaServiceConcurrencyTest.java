@@ -0,0 +1,164 @@
+package com.TecUnify.backend_user.service;
+
+import com.TecUnify.backend_user.dto.ReservaDTO;
+import com.TecUnify.backend_user.model.Espacio;
+import com.TecUnify.backend_user.model.EstadoReserva;
+import com.TecUnify.backend_user.model.Reserva;
+import com.TecUnify.backend_user.model.User;
+import com.TecUnify.backend_user.repository.EspacioRepository;
+import com.TecUnify.backend_user.repository.OutboxReservaRepository;
+import com.TecUnify.backend_user.repository.ReservaRepository;
+import com.TecUnify.backend_user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReservaServiceConcurrencyTest {
+
+    private static final int HILOS = 32;
+
+    private ReservaRepository reservaRepository;
+    private ReservaService reservaService;
+    private final ConcurrentLinkedQueue<Reserva> guardadas = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        reservaRepository = mock(ReservaRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        EspacioRepository espacioRepository = mock(EspacioRepository.class);
+
+        AtomicLong ids = new AtomicLong();
+        when(reservaRepository.findFranjasDesde(any(), any())).thenReturn(List.of());
+        when(reservaRepository.saveAndFlush(any(Reserva.class))).thenAnswer(inv -> {
+            Reserva r = inv.getArgument(0);
+            r.setId(ids.incrementAndGet());
+            Thread.yield(); // ensancha la ventana de carrera
+            guardadas.add(r);
+            return r;
+        });
+        // La BD: lo que se guardó (el índice confirma con ella antes de dar un conflicto)
+        when(reservaRepository.findConflictos(any(), any(), any(), any(), any())).thenAnswer(inv -> {
+            Long espacioId = inv.getArgument(0);
+            LocalDate fecha = inv.getArgument(1);
+            LocalTime desde = inv.getArgument(2);
+            LocalTime hasta = inv.getArgument(3);
+            return guardadas.stream()
+                    .filter(r -> r.getEspacio().getId().equals(espacioId) && r.getFechaReserva().equals(fecha)
+                            && r.getHoraInicio().isBefore(hasta) && r.getHoraFin().isAfter(desde))
+                    .map(Reserva::getId)
+                    .toList();
+        });
+        when(userRepository.findById(anyLong())).thenAnswer(inv ->
+                Optional.of(User.builder().id(inv.getArgument(0)).build()));
+        when(espacioRepository.findById(anyLong())).thenAnswer(inv ->
+                Optional.of(Espacio.builder().id(inv.getArgument(0)).build()));
+
+        DisponibilidadIndex index = new DisponibilidadIndex(reservaRepository, evento -> { });
+        index.cargar();
+
+        reservaService = new ReservaService(reservaRepository, userRepository, espacioRepository,
+                index, new OcupacionRollup(reservaRepository, 12), evento -> { }, new ReservaLocks(64),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new OutboxReservas(mock(OutboxReservaRepository.class)));
+    }
+
+    @Test
+    void soloUnaReservaGanaElMismoHorario() throws Exception {
+        LocalDate fecha = LocalDate.now().plusDays(1);
+        AtomicInteger exitos = new AtomicInteger();
+        AtomicInteger conflictos = new AtomicInteger();
+
+        correrEnParalelo(i -> {
+            try {
+                reservaService.create(dto((long) i, 1L, fecha, 8, 10));
+                exitos.incrementAndGet();
+            } catch (IllegalStateException e) {
+                conflictos.incrementAndGet();
+            }
+        });
+
+        assertThat(exitos.get()).isEqualTo(1);
+        assertThat(conflictos.get()).isEqualTo(HILOS - 1);
+        assertThat(guardadas).hasSize(1);
+        assertThat(guardadas.peek().getEstado()).isEqualTo(EstadoReserva.PENDIENTE);
+    }
+
+    @Test
+    void horariosSolapadosTambienCompiten() throws Exception {
+        LocalDate fecha = LocalDate.now().plusDays(1);
+
+        // cada hilo pide una ventana distinta de 2h que se solapa con las vecinas
+        correrEnParalelo(i -> {
+            try {
+                reservaService.create(dto((long) i, 1L, fecha, 8 + (i % 4), 10 + (i % 4)));
+            } catch (IllegalStateException ignored) {
+            }
+        });
+
+        List<Reserva> lista = List.copyOf(guardadas);
+        for (int a = 0; a < lista.size(); a++) {
+            for (int b = a + 1; b < lista.size(); b++) {
+                Reserva x = lista.get(a);
+                Reserva y = lista.get(b);
+                boolean solapan = x.getHoraInicio().isBefore(y.getHoraFin())
+                        && y.getHoraInicio().isBefore(x.getHoraFin());
+                assertThat(solapan).as("%s-%s vs %s-%s", x.getHoraInicio(), x.getHoraFin(),
+                        y.getHoraInicio(), y.getHoraFin()).isFalse();
+            }
+        }
+    }
+
+    @Test
+    void espaciosDistintosNoSeBloquean() throws Exception {
+        LocalDate fecha = LocalDate.now().plusDays(1);
+
+        correrEnParalelo(i -> reservaService.create(dto((long) i, (long) i + 100, fecha, 8, 10)));
+
+        assertThat(guardadas).hasSize(HILOS);
+    }
+
+    private void correrEnParalelo(java.util.function.IntConsumer tarea) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch salida = new CountDownLatch(1);
+        for (int i = 0; i < HILOS; i++) {
+            int n = i;
+            pool.submit(() -> {
+                salida.await();
+                tarea.accept(n);
+                return null;
+            });
+        }
+        salida.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static ReservaDTO dto(Long userId, Long espacioId, LocalDate fecha, int desde, int hasta) {
+        ReservaDTO dto = new ReservaDTO();
+        dto.setUserId(userId);
+        dto.setEspacioId(espacioId);
+        dto.setFechaReserva(fecha);
+        dto.setHoraInicio(LocalTime.of(desde, 0));
+        dto.setHoraFin(LocalTime.of(hasta, 0));
+        return dto;
+    }
+}
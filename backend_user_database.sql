@@ -7,6 +7,8 @@
 -- \c backend_user;
 
 -- Eliminar tablas existentes si existen (en orden correcto por dependencias)
+DROP TABLE IF EXISTS outbox_reservas CASCADE;
+DROP TABLE IF EXISTS lista_espera CASCADE;
 DROP TABLE IF EXISTS reservas CASCADE;
 DROP TABLE IF EXISTS horarios_disponibilidad CASCADE;
 DROP TABLE IF EXISTS espacios CASCADE;
@@ -22,6 +24,9 @@ DROP SEQUENCE IF EXISTS espacios_id_seq CASCADE;
 DROP SEQUENCE IF EXISTS horarios_disponibilidad_id_seq CASCADE;
 DROP SEQUENCE IF EXISTS reservas_id_seq CASCADE;
 
+-- Extensión necesaria para la restricción de exclusión de reservas
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
 -- =====================================================
 -- TABLA: tipos_espacios
 -- =====================================================
@@ -126,17 +131,84 @@ CREATE TABLE reservas (
     observaciones TEXT,
     fecha_creacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     fecha_actualizacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- Versión para el control optimista de JPA (@Version)
+    version BIGINT NOT NULL DEFAULT 0,
     
     -- Constraint para validar que hora_fin > hora_inicio
     CONSTRAINT chk_reserva_horario_valido CHECK (hora_fin > hora_inicio),
     
-    -- Constraint para validar que la fecha no sea en el pasado
-    CONSTRAINT chk_fecha_futura CHECK (fecha_reserva >= CURRENT_DATE),
+    -- Constraint para validar que la fecha no sea en el pasado (solo reservas activas:
+    -- el job de vencimiento pasa las reservas ya ocurridas a COMPLETADA o CANCELADA)
+    CONSTRAINT chk_fecha_futura CHECK (fecha_reserva >= CURRENT_DATE OR estado IN ('CANCELADA', 'COMPLETADA')),
     
-    -- Constraint para evitar reservas duplicadas en el mismo espacio y horario
-    CONSTRAINT uk_reserva_espacio_fecha_hora UNIQUE (espacio_id, fecha_reserva, hora_inicio, hora_fin)
+    -- Constraint para evitar reservas solapadas (no canceladas) en el mismo espacio y fecha
+    CONSTRAINT ex_reserva_espacio_solapada EXCLUDE USING gist (
+        espacio_id WITH =,
+        fecha_reserva WITH =,
+        tsrange(fecha_reserva + hora_inicio, fecha_reserva + hora_fin) WITH &&
+    ) WHERE (estado <> 'CANCELADA')
 );
 
+-- El backend usa una secuencia con pool (allocationSize = 50) para insertar reservas en lote
+ALTER SEQUENCE reservas_id_seq INCREMENT BY 50;
+
+-- =====================================================
+-- TABLA: lista_espera
+-- =====================================================
+-- Usuarios esperando un horario ocupado; al liberarse se promueve el primero en llegar
+CREATE TABLE lista_espera (
+    id BIGSERIAL PRIMARY KEY,
+    usuario_id BIGINT NOT NULL REFERENCES usuarios(id) ON DELETE CASCADE,
+    espacio_id BIGINT NOT NULL REFERENCES espacios(id) ON DELETE CASCADE,
+    fecha_reserva DATE NOT NULL,
+    hora_inicio TIME NOT NULL,
+    hora_fin TIME NOT NULL,
+    motivo VARCHAR(200),
+    precio_total DECIMAL(10,2) CHECK (precio_total >= 0),
+    estado VARCHAR(20) DEFAULT 'ESPERANDO' CHECK (estado IN ('ESPERANDO', 'PROMOVIDA', 'RETIRADA')),
+    reserva_id BIGINT REFERENCES reservas(id) ON DELETE SET NULL,
+    fecha_creacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0,
+
+    CONSTRAINT chk_espera_horario_valido CHECK (hora_fin > hora_inicio)
+);
+
+-- Un usuario espera una sola vez el mismo horario
+CREATE UNIQUE INDEX uq_lista_espera_activa ON lista_espera(usuario_id, espacio_id, fecha_reserva, hora_inicio, hora_fin)
+    WHERE estado = 'ESPERANDO';
+-- Cola de un espacio y fecha en orden de llegada
+CREATE INDEX idx_lista_espera_franja ON lista_espera(espacio_id, fecha_reserva, id) WHERE estado = 'ESPERANDO';
+
+-- =====================================================
+-- TABLA: outbox_reservas
+-- =====================================================
+-- Eventos del ciclo de vida de las reservas, escritos en la misma transacción que el cambio.
+-- Sin FK a reservas: el evento ELIMINADA sobrevive a la fila
+CREATE TABLE outbox_reservas (
+    id BIGSERIAL PRIMARY KEY,
+    reserva_id BIGINT NOT NULL,
+    tipo VARCHAR(20) NOT NULL CHECK (tipo IN ('CREADA', 'ESTADO_CAMBIADO', 'ELIMINADA')),
+    usuario_id BIGINT,
+    espacio_id BIGINT,
+    fecha_reserva DATE,
+    hora_inicio TIME,
+    hora_fin TIME,
+    estado_anterior VARCHAR(20),
+    estado_actual VARCHAR(20),
+    creado_en TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    procesado_en TIMESTAMP,
+    intentos INT NOT NULL DEFAULT 0,
+    siguiente_intento TIMESTAMP,
+    ultimo_error VARCHAR(500)
+);
+
+-- Pendientes en orden de escritura (lo que lee el relay)
+CREATE INDEX idx_outbox_reservas_pendientes ON outbox_reservas(id) WHERE procesado_en IS NULL;
+-- Evento pendiente anterior de la misma reserva (NOT EXISTS de findPendientes)
+CREATE INDEX idx_outbox_reservas_pendientes_reserva ON outbox_reservas(reserva_id, id) WHERE procesado_en IS NULL;
+-- Purga de entregados
+CREATE INDEX idx_outbox_reservas_procesado ON outbox_reservas(procesado_en) WHERE procesado_en IS NOT NULL;
+
 -- =====================================================
 -- ÍNDICES PARA OPTIMIZACIÓN
 -- =====================================================
@@ -165,6 +237,12 @@ CREATE INDEX idx_reservas_fecha ON reservas(fecha_reserva);
 CREATE INDEX idx_reservas_estado ON reservas(estado);
 CREATE INDEX idx_reservas_fecha_espacio ON reservas(fecha_reserva, espacio_id);
 CREATE INDEX idx_reservas_usuario_fecha ON reservas(usuario_id, fecha_reserva);
+-- Listado admin por cursor (ORDER BY fecha_reserva DESC, id DESC): cada página
+-- es un tramo del índice; con filtro de estado se usa el segundo
+CREATE INDEX idx_reservas_fecha_id ON reservas(fecha_reserva DESC, id DESC);
+CREATE INDEX idx_reservas_estado_fecha_id ON reservas(estado, fecha_reserva DESC, id DESC);
+-- Recorrido por id de las reservas activas que revisa el job de vencimiento
+CREATE INDEX idx_reservas_activas ON reservas(estado, id) WHERE estado IN ('PENDIENTE', 'CONFIRMADA');
 
 -- =====================================================
 -- TRIGGERS PARA ACTUALIZAR fecha_actualizacion
@@ -1,6 +1,6 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { ArrowLeft, MapPin, Users, Calendar, Clock, CheckCircle } from 'lucide-react';
-import { reservationAPI } from '../services/reservationAPI';
+import { reservationAPI, nuevaClaveIdempotencia } from '../services/reservationAPI';
 
 export default function ReservationForm({ espacio, onBack, onReservationSuccess }) {
   const [formData, setFormData] = useState({
@@ -12,6 +12,8 @@ export default function ReservationForm({ espacio, onBack, onReservationSuccess
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState('');
   const [success, setSuccess] = useState(false);
+  // Clave de idempotencia: se reutiliza mientras se reintente la misma reserva
+  const envioRef = useRef({ datos: null, clave: null });
 
   // Motivos predefinidos
   const motivos = [
@@ -140,7 +142,11 @@ export default function ReservationForm({ espacio, onBack, onReservationSuccess
 
       // Llamar a la API real
       console.log('Enviando reserva:', reservaData);
-      const response = await reservationAPI.crearReserva(reservaData);
+      const datos = JSON.stringify(reservaData);
+      if (envioRef.current.datos !== datos) {
+        envioRef.current = { datos, clave: nuevaClaveIdempotencia() };
+      }
+      const response = await reservationAPI.crearReserva(reservaData, envioRef.current.clave);
       
       console.log('Respuesta de la API:', response);
       
@@ -6,6 +6,10 @@ const API_BASE = 'http://localhost:8081/api';
 export default function AdminDashboard() {
   const [espacios, setEspacios] = useState([]);
   const [reservas, setReservas] = useState([]);
+  // Listado paginado por cursor: nextCursor es null cuando no hay más páginas
+  const [nextCursor, setNextCursor] = useState(null);
+  const [cargandoReservas, setCargandoReservas] = useState(false);
+  const [filtros, setFiltros] = useState({ estado: '', desde: '', hasta: '', espacioId: '' });
   const [activeTab, setActiveTab] = useState('espacios');
   const role = localStorage.getItem('role');
 
@@ -29,27 +33,59 @@ export default function AdminDashboard() {
     }
   };
 
-  const cargarReservas = async () => {
+  // Sin cursor recarga desde la primera página; con cursor agrega la siguiente
+  const cargarReservas = async (cursor = null, filtrosActuales = filtros) => {
+    setCargandoReservas(true);
     try {
+      const params = { limite: 50 };
+      Object.entries(filtrosActuales).forEach(([clave, valor]) => {
+        if (valor) params[clave] = valor;
+      });
+      if (cursor) params.cursor = cursor;
       const response = await axios.get(`${API_BASE}/reservas`, {
-        headers: { 'X-User-Role': role }
+        headers: { 'X-User-Role': role },
+        params
       });
-      setReservas(response.data);
+      const items = response.data.items ?? [];
+      setReservas((previas) => (cursor ? [...previas, ...items] : items));
+      setNextCursor(response.data.nextCursor ?? null);
     } catch (error) {
       console.error('Error:', error);
+      if (error.response?.status === 400) alert(error.response.data);
+    } finally {
+      setCargandoReservas(false);
     }
   };
 
-  const handleCambiarEstado = async (reservaId, nuevoEstado) => {
+  const cambiarFiltro = (clave, valor) => {
+    const nuevos = { ...filtros, [clave]: valor };
+    setFiltros(nuevos);
+    cargarReservas(null, nuevos);
+  };
+
+  const limpiarFiltros = () => {
+    const vacios = { estado: '', desde: '', hasta: '', espacioId: '' };
+    setFiltros(vacios);
+    cargarReservas(null, vacios);
+  };
+
+  // Se envía la versión mostrada: si otro admin la cambió antes, el backend responde 409
+  const handleCambiarEstado = async (reservaId, nuevoEstado, version) => {
     try {
+      const versionParam = version != null ? `&version=${version}` : '';
       await axios.put(
-        `${API_BASE}/reservas/${reservaId}/estado?estado=${nuevoEstado}`,
+        `${API_BASE}/reservas/${reservaId}/estado?estado=${nuevoEstado}${versionParam}`,
         {},
         { headers: { 'X-User-Role': role } }
       );
       cargarReservas();
       alert('Estado actualizado');
     } catch (error) {
+      if (error.response?.status === 409) {
+        cargarReservas();
+        alert(error.response.data);
+        return;
+      }
       alert('Error: ' + error.message);
     }
   };
@@ -114,6 +150,59 @@ export default function AdminDashboard() {
         {activeTab === 'reservas' && (
           <div className="bg-white rounded-lg shadow p-6">
             <h2 className="text-xl font-bold mb-4">Gestión de Reservas</h2>
+
+            {/* Filtros */}
+            <div className="flex flex-wrap gap-3 mb-4 items-end">
+              <label className="flex flex-col text-sm">
+                Estado
+                <select
+                  value={filtros.estado}
+                  onChange={(e) => cambiarFiltro('estado', e.target.value)}
+                  className="border p-1 rounded"
+                >
+                  <option value="">Todos</option>
+                  <option>PENDIENTE</option>
+                  <option>CONFIRMADA</option>
+                  <option>CANCELADA</option>
+                  <option>COMPLETADA</option>
+                </select>
+              </label>
+              <label className="flex flex-col text-sm">
+                Espacio
+                <select
+                  value={filtros.espacioId}
+                  onChange={(e) => cambiarFiltro('espacioId', e.target.value)}
+                  className="border p-1 rounded"
+                >
+                  <option value="">Todos</option>
+                  {espacios.map((e) => (
+                    <option key={e.id} value={e.id}>{e.nombre}</option>
+                  ))}
+                </select>
+              </label>
+              <label className="flex flex-col text-sm">
+                Desde
+                <input
+                  type="date"
+                  value={filtros.desde}
+                  onChange={(e) => cambiarFiltro('desde', e.target.value)}
+                  className="border p-1 rounded"
+                />
+              </label>
+              <label className="flex flex-col text-sm">
+                Hasta
+                <input
+                  type="date"
+                  value={filtros.hasta}
+                  onChange={(e) => cambiarFiltro('hasta', e.target.value)}
+                  className="border p-1 rounded"
+                />
+              </label>
+              <button onClick={limpiarFiltros} className="px-3 py-1 bg-gray-200 rounded">
+                Limpiar filtros
+              </button>
+            </div>
+
             <table className="w-full border-collapse">
               <thead>
                 <tr className="bg-gray-200">
@@ -129,14 +218,14 @@ export default function AdminDashboard() {
                 {reservas.map((r) => (
                   <tr key={r.id} className="hover:bg-gray-100">
                     <td className="border p-2">{r.id}</td>
-                    <td className="border p-2">{r.usuario?.email}</td>
-                    <td className="border p-2">{r.espacio?.nombre}</td>
+                    <td className="border p-2">{r.usuarioEmail}</td>
+                    <td className="border p-2">{r.espacioNombre}</td>
                     <td className="border p-2">{r.fechaReserva}</td>
                     <td className="border p-2">{r.estado}</td>
                     <td className="border p-2">
                       <select
                         defaultValue={r.estado}
-                        onChange={(e) => handleCambiarEstado(r.id, e.target.value)}
+                        onChange={(e) => handleCambiarEstado(r.id, e.target.value, r.version)}
                         className="border p-1 rounded"
                       >
                         <option>PENDIENTE</option>
@@ -149,6 +238,21 @@ export default function AdminDashboard() {
                 ))}
               </tbody>
             </table>
+
+            <div className="flex items-center justify-between mt-4 text-sm text-gray-600">
+              <span>
+                Mostrando {reservas.length} reservas{nextCursor ? ' (hay más)' : ''}
+              </span>
+              {nextCursor && (
+                <button
+                  onClick={() => cargarReservas(nextCursor)}
+                  disabled={cargandoReservas}
+                  className="px-4 py-2 bg-blue-600 text-white rounded disabled:opacity-50"
+                >
+                  {cargandoReservas ? 'Cargando...' : 'Cargar más'}
+                </button>
+              )}
+            </div>
           </div>
         )}
       </div>
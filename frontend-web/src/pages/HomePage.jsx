@@ -24,13 +24,20 @@ export default function HomePage() {
   const cargarDatos = async () => {
     try {
       setLoading(true)
-      // Cargar espacios
-      const espaciosRes = await axios.get(`${API_BASE}/espacios`)
-      setEspacios(espaciosRes.data)
-
-      // Cargar mis reservas
-      const reservasRes = await axios.get(`${API_BASE}/reservas/mi?email=${email}`)
-      setMiReservas(reservasRes.data)
+      // Un solo request: catálogo, usuario y mis reservas. Si la versión del
+      // catálogo guardado coincide, el servidor no lo vuelve a enviar.
+      const guardado = JSON.parse(localStorage.getItem('catalogo') || 'null')
+      const { data } = await axios.get(`${API_BASE}/bootstrap`, {
+        params: { email, catalogoVersion: guardado?.version }
+      })
+      let catalogo = data.catalogo
+      if (catalogo) {
+        localStorage.setItem('catalogo', JSON.stringify({ version: data.catalogoVersion, datos: catalogo }))
+      } else {
+        catalogo = guardado.datos
+      }
+      setEspacios(catalogo.espacios)
+      setMiReservas(data.reservas)
     } catch (error) {
       console.error('Error:', error)
     } finally {
@@ -118,7 +125,7 @@ export default function HomePage() {
                 <tbody>
                   {miReservas.map((r) => (
                     <tr key={r.id}>
-                      <td>{r.espacio?.nombre}</td>
+                      <td>{r.espacioNombre}</td>
                       <td>{r.fechaReserva}</td>
                       <td>
                         {r.horaInicio} - {r.horaFin}
@@ -10,6 +10,24 @@ const getHeaders = () => {
   };
 };
 
+// UUID v4 para Idempotency-Key. crypto.randomUUID solo existe en contextos seguros
+// (https o localhost); por http desde otra máquina se arma con getRandomValues
+export const nuevaClaveIdempotencia = () => {
+  if (typeof crypto !== 'undefined' && typeof crypto.randomUUID === 'function') {
+    return crypto.randomUUID();
+  }
+  const bytes = new Uint8Array(16);
+  if (typeof crypto !== 'undefined' && typeof crypto.getRandomValues === 'function') {
+    crypto.getRandomValues(bytes);
+  } else {
+    for (let i = 0; i < bytes.length; i++) bytes[i] = Math.floor(Math.random() * 256);
+  }
+  bytes[6] = (bytes[6] & 0x0f) | 0x40; // versión 4
+  bytes[8] = (bytes[8] & 0x3f) | 0x80; // variante RFC 4122
+  const hex = Array.from(bytes, (b) => b.toString(16).padStart(2, '0')).join('');
+  return `${hex.slice(0, 8)}-${hex.slice(8, 12)}-${hex.slice(12, 16)}-${hex.slice(16, 20)}-${hex.slice(20)}`;
+};
+
 export const reservationAPI = {
   // Obtener todos los espacios disponibles
   getEspacios: async () => {
@@ -76,13 +94,13 @@ export const reservationAPI = {
     }
   },
 
-  // Crear una nueva reserva
-  crearReserva: async (reservaData) => {
+  // Crear una nueva reserva. Reenviar con la misma idempotencyKey no duplica la reserva.
+  crearReserva: async (reservaData, idempotencyKey = nuevaClaveIdempotencia()) => {
     try {
       console.log('Enviando reserva al backend:', reservaData);
       const response = await fetch(`${API_BASE_URL}/api/reservas`, {
         method: 'POST',
-        headers: getHeaders(),
+        headers: { ...getHeaders(), 'Idempotency-Key': idempotencyKey },
         body: JSON.stringify(reservaData)
       });
 